@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.common.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The format of a dependency bundle, a zip archive containing many dependencies so they can be downloaded in one request.
+ * <p>
+ * The first entry is the {@link #INDEX_ENTRY index}, followed by one uncompressed entry for each dependency
+ * named by the dependency's path on a maven repository.
+ */
+@ApiStatus.Internal
+public final class BundleFormat {
+
+    /**
+     * The name of the index entry, the index lists every other entry on its own line as {@code <path> <hashing algorithm> <hash>}.
+     */
+    public static final String INDEX_ENTRY = "META-INF/dependencydownload/index.txt";
+
+    private BundleFormat() {}
+}
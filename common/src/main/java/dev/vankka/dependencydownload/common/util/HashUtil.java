@@ -39,6 +39,8 @@ import java.security.MessageDigest;
 @ApiStatus.Internal
 public final class HashUtil {
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     private HashUtil() {}
 
     /**
@@ -50,7 +52,17 @@ public final class HashUtil {
      */
     public static String getFileHash(Path file, MessageDigest digest) throws IOException {
         digest.reset();
+        updateDigest(file, digest);
+        return getHash(digest);
+    }
 
+    /**
+     * Updates the provided {@link MessageDigest} with the contents of the provided file, without resetting or completing it.
+     * @param file the file
+     * @param digest the message digest to update
+     * @throws IOException if reading the file was unsuccessful
+     */
+    public static void updateDigest(Path file, MessageDigest digest) throws IOException {
         try (InputStream inputStream = Files.newInputStream(file)) {
             byte[] buffer = new byte[1024];
             int total;
@@ -58,8 +70,6 @@ public final class HashUtil {
                 digest.update(buffer, 0, total);
             }
         }
-
-        return getHash(digest);
     }
 
     /**
@@ -68,10 +78,12 @@ public final class HashUtil {
      * @return the hash in standard format
      */
     public static String getHash(MessageDigest digest) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : digest.digest()) {
-            result.append(String.format("%02x", b));
+        byte[] bytes = digest.digest();
+        char[] result = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            result[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            result[i * 2 + 1] = HEX[bytes[i] & 0xF];
         }
-        return result.toString();
+        return new String(result);
     }
 }
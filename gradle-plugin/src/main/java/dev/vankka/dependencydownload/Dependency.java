@@ -24,6 +24,7 @@
 
 package dev.vankka.dependencydownload;
 
+import java.io.File;
 import java.util.Objects;
 
 public class Dependency {
@@ -33,13 +34,19 @@ public class Dependency {
     private final String version;
     private final String classifier;
     private final String hash;
+    private final File file;
 
     public Dependency(String group, String module, String version, String classifier, String hash) {
+        this(group, module, version, classifier, hash, null);
+    }
+
+    public Dependency(String group, String module, String version, String classifier, String hash, File file) {
         this.group = group;
         this.module = module;
         this.version = version;
         this.classifier = classifier;
         this.hash = hash;
+        this.file = file;
     }
 
     public String getGroup() {
@@ -62,6 +69,23 @@ public class Dependency {
         return hash;
     }
 
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * The path to this dependency on a maven repository, the same as the runtime's {@code MavenDependency#getMavenPath()}.
+     * @return the path without a slash at the beginning
+     */
+    public String getMavenPath() {
+        // Unique snapshots are "<version>:<timestamped version>"
+        int separator = version.indexOf(':');
+        String baseVersion = separator != -1 ? version.substring(0, separator) : version;
+        String fileVersion = separator != -1 ? version.substring(separator + 1) : version;
+        return group.replace('.', '/') + '/' + module + '/' + baseVersion + '/'
+                + module + '-' + fileVersion + (classifier != null ? '-' + classifier : "") + ".jar";
+    }
+
     @Override
     public String toString() {
         return group + ":" + module + ":" + version + (classifier != null ? ":" + classifier : "") + " " + hash;
@@ -24,12 +24,14 @@
 
 package dev.vankka.dependencydownload;
 
+import dev.vankka.dependencydownload.task.BundleDependencyDownloadResourceTask;
 import dev.vankka.dependencydownload.task.GenerateDependencyDownloadResourceTask;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
 import org.gradle.api.tasks.TaskContainer;
+import org.gradle.api.tasks.TaskProvider;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -57,6 +59,7 @@ public class DependencyDownloadGradlePlugin implements Plugin<Project> {
         //
         Map<String, Configuration> tasksToMake = new HashMap<>();
         String taskName = "generateRuntimeDownloadResourceFor";
+        String bundleTaskName = "bundleRuntimeDownloadResourceFor";
         tasksToMake.put(taskName + "RuntimeDownloadOnly", baseConfiguration);
         tasksToMake.put(taskName + "RuntimeDownload", compileConfiguration);
 
@@ -64,7 +67,19 @@ public class DependencyDownloadGradlePlugin implements Plugin<Project> {
         for (Map.Entry<String, Configuration> entry : tasksToMake.entrySet()) {
             String configurationName = entry.getKey();
             Configuration configuration = entry.getValue();
-            tasks.register(configurationName, GenerateDependencyDownloadResourceTask.class, t -> t.configuration(configuration));
+            TaskProvider<GenerateDependencyDownloadResourceTask> resourceTask =
+                    tasks.register(configurationName, GenerateDependencyDownloadResourceTask.class, t -> t.configuration(configuration));
+
+            tasks.register(
+                    bundleTaskName + configurationName.substring(taskName.length()),
+                    BundleDependencyDownloadResourceTask.class,
+                    t -> {
+                        t.getConfiguration().set(resourceTask.flatMap(GenerateDependencyDownloadResourceTask::getConfiguration));
+                        t.getHashingAlgorithm().set(resourceTask.flatMap(GenerateDependencyDownloadResourceTask::getHashingAlgorithm));
+                        t.getArchiveFile().convention(project.getLayout().getBuildDirectory()
+                                                              .file("dependency-bundles/" + configuration.getName() + ".zip"));
+                    }
+            );
         }
     }
 }
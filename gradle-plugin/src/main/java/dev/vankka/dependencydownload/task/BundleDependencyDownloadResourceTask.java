@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.task;
+
+import dev.vankka.dependencydownload.Dependency;
+import dev.vankka.dependencydownload.common.util.BundleFormat;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Packs every dependency of a {@link GenerateDependencyDownloadResourceTask} into a single bundle archive,
+ * which can be served to the runtime's {@code BundleRepository} to download all the dependencies in one request.
+ */
+public abstract class BundleDependencyDownloadResourceTask extends DefaultTask {
+
+    @Classpath
+    public abstract Property<Configuration> getConfiguration();
+
+    @Input
+    public abstract Property<String> getHashingAlgorithm();
+
+    @OutputFile
+    public abstract RegularFileProperty getArchiveFile();
+
+    public BundleDependencyDownloadResourceTask() {
+        getHashingAlgorithm().convention("SHA-256");
+    }
+
+    /**
+     * Bundles the same dependencies as the provided resource task, with the same hashing algorithm.
+     * @param resourceTask the resource task
+     */
+    public void resource(GenerateDependencyDownloadResourceTask resourceTask) {
+        getConfiguration().set(resourceTask.getConfiguration());
+        getHashingAlgorithm().set(resourceTask.getHashingAlgorithm());
+    }
+
+    //
+    // Action
+    //
+
+    @TaskAction
+    public void run() throws NoSuchAlgorithmException, IOException {
+        Property<Configuration> property = getConfiguration();
+        Configuration configuration;
+        if (property.isPresent()) {
+            configuration = property.get();
+        } else {
+            throw new IllegalArgumentException("configuration must be provided");
+        }
+
+        String hashingAlgorithm = getHashingAlgorithm().get();
+        Set<Dependency> dependencies = DependencyResolution.getAllDependencies(configuration, hashingAlgorithm, getLogger());
+
+        StringBuilder index = new StringBuilder();
+        for (Dependency dependency : dependencies) {
+            index.append(dependency.getMavenPath())
+                    .append(' ').append(hashingAlgorithm)
+                    .append(' ').append(dependency.getHash())
+                    .append('\n');
+        }
+
+        Path archiveFile = getArchiveFile().get().getAsFile().toPath();
+        Files.createDirectories(archiveFile.getParent());
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(archiveFile))) {
+            // The index comes first, so the runtime knows what the bundle contains before streaming the rest of it
+            byte[] indexBytes = index.toString().getBytes(StandardCharsets.UTF_8);
+            CRC32 indexCrc = new CRC32();
+            indexCrc.update(indexBytes);
+            putStoredEntry(outputStream, BundleFormat.INDEX_ENTRY, indexBytes.length, indexCrc.getValue());
+            outputStream.write(indexBytes);
+            outputStream.closeEntry();
+
+            for (Dependency dependency : dependencies) {
+                Path file = dependency.getFile().toPath();
+                putStoredEntry(outputStream, dependency.getMavenPath(), Files.size(file), getCrc(file));
+                Files.copy(file, outputStream);
+                outputStream.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Jars are already compressed, entries are stored as-is so the runtime can write them without inflating.
+     */
+    private void putStoredEntry(ZipOutputStream outputStream, String name, long size, long crc) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc);
+        outputStream.putNextEntry(entry);
+    }
+
+    private long getCrc(Path file) throws IOException {
+        try (CheckedInputStream inputStream = new CheckedInputStream(Files.newInputStream(file), new CRC32())) {
+            byte[] buffer = new byte[8192];
+            while (inputStream.read(buffer) != -1) {
+                // Reading updates the checksum
+            }
+            return inputStream.getChecksum().getValue();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.task;
+
+import dev.vankka.dependencydownload.Dependency;
+import dev.vankka.dependencydownload.common.util.HashUtil;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.component.ComponentArtifactIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.internal.artifacts.repositories.resolver.MavenUniqueSnapshotComponentIdentifier;
+import org.gradle.api.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Resolves the dependencies of a configuration, shared by the resource and bundle tasks.
+ */
+final class DependencyResolution {
+
+    private DependencyResolution() {}
+
+    /**
+     * Gets all the distinct dependencies of the configuration and the configurations it extends from.
+     */
+    static Set<Dependency> getAllDependencies(
+            Configuration configuration,
+            String hashingAlgorithm,
+            Logger logger
+    ) throws NoSuchAlgorithmException, IOException {
+        Set<Dependency> dependencies = new LinkedHashSet<>();
+        for (Configuration config : getConfigurations(configuration)) {
+            for (ResolvedDependency resolvedDependency : config.getResolvedConfiguration().getFirstLevelModuleDependencies()) {
+                dependencies.addAll(processDependency(resolvedDependency, hashingAlgorithm, logger));
+            }
+        }
+        return dependencies;
+    }
+
+    static Set<Configuration> getConfigurations(Configuration configuration) {
+        Set<Configuration> configurations = new HashSet<>();
+        configurations.add(configuration);
+        for (Configuration config : configuration.getExtendsFrom()) {
+            configurations.addAll(getConfigurations(config));
+        }
+        return configurations;
+    }
+
+    static List<Dependency> processDependency(
+            ResolvedDependency dependency,
+            String hashingAlgorithm,
+            Logger logger
+    ) throws NoSuchAlgorithmException, IOException {
+        String hash = null;
+        File artifactFile = null;
+        String snapshotVersion = null;
+        String classifier = null;
+        for (ResolvedArtifact moduleArtifact : dependency.getModuleArtifacts()) {
+            if (!moduleArtifact.getType().equals("jar")) {
+                continue;
+            }
+
+            String currentClassifier = moduleArtifact.getClassifier();
+            if (currentClassifier != null) {
+                classifier = currentClassifier;
+            }
+
+            artifactFile = moduleArtifact.getFile();
+            MessageDigest digest = MessageDigest.getInstance(hashingAlgorithm);
+            hash = HashUtil.getFileHash(artifactFile.toPath(), digest);
+
+            ComponentArtifactIdentifier componentArtifactIdentifier = moduleArtifact.getId();
+            ComponentIdentifier componentIdentifier = componentArtifactIdentifier.getComponentIdentifier();
+            if (componentIdentifier instanceof MavenUniqueSnapshotComponentIdentifier) {
+                snapshotVersion = ((MavenUniqueSnapshotComponentIdentifier) componentIdentifier).getTimestampedVersion();
+            }
+            break;
+        }
+
+        List<Dependency> dependencies = new ArrayList<>();
+        if (hash != null) {
+            String group = dependency.getModuleGroup();
+            String module = dependency.getModuleName();
+            String version = dependency.getModuleVersion();
+            String finalVersion = snapshotVersion != null ? version + ":" + snapshotVersion : version;
+            if (finalVersion.endsWith("-SNAPSHOT")) {
+                logger.warn("");
+                logger.warn(group + ":" + module + " resolved to a non-versioned snapshot version: " + version);
+                logger.warn("This is usually caused by the dependency being resolved from mavenLocal()");
+                logger.warn("and the local repository containing the dependency with the version '" + version + "' (without a timestamp)");
+            }
+            dependencies.add(new Dependency(group, module, finalVersion, classifier, hash, artifactFile));
+        }
+
+        for (ResolvedDependency child : dependency.getChildren()) {
+            dependencies.addAll(
+                    processDependency(child, hashingAlgorithm, logger)
+            );
+        }
+        return dependencies;
+    }
+}
@@ -26,20 +26,14 @@ package dev.vankka.dependencydownload.task;
 
 import dev.vankka.dependencydownload.Dependency;
 import dev.vankka.dependencydownload.DependencyDownloadGradlePlugin;
-import dev.vankka.dependencydownload.common.util.HashUtil;
 import dev.vankka.dependencydownload.inputs.Relocation;
 import dev.vankka.dependencydownload.inputs.ResourceSplittingStrategy;
 import org.gradle.api.Action;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.ResolvedArtifact;
 import org.gradle.api.artifacts.ResolvedDependency;
-import org.gradle.api.artifacts.component.ComponentArtifactIdentifier;
-import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.file.RegularFileProperty;
-import org.gradle.api.internal.artifacts.repositories.resolver.MavenUniqueSnapshotComponentIdentifier;
-import org.gradle.api.logging.Logger;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.plugins.JavaPluginExtension;
 import org.gradle.api.provider.Property;
@@ -52,7 +46,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
@@ -190,12 +183,12 @@ public abstract class GenerateDependencyDownloadResourceTask extends DefaultTask
         Set<Dependency> processedDependencies = new HashSet<>();
 
         List<Dependency> dependencies = single ? new ArrayList<>() : null;
-        for (Configuration config : getConfigurations(configuration)) {
+        for (Configuration config : DependencyResolution.getConfigurations(configuration)) {
             for (ResolvedDependency resolvedDependency : config.getResolvedConfiguration().getFirstLevelModuleDependencies()) {
                 if (topLevel) {
                     dependencies = new ArrayList<>();
                 }
-                for (Dependency dependency : processDependency(resolvedDependency, hashingAlgorithm)) {
+                for (Dependency dependency : DependencyResolution.processDependency(resolvedDependency, hashingAlgorithm, getLogger())) {
                     if (!processedDependencies.add(dependency)) {
                         // Only add dependencies once
                         continue;
@@ -319,15 +312,6 @@ public abstract class GenerateDependencyDownloadResourceTask extends DefaultTask
         }
     }
 
-    private Set<Configuration> getConfigurations(Configuration configuration) {
-        Set<Configuration> configurations = new HashSet<>();
-        configurations.add(configuration);
-        for (Configuration config : configuration.getExtendsFrom()) {
-            configurations.addAll(getConfigurations(config));
-        }
-        return configurations;
-    }
-
     @SuppressWarnings("unchecked")
     private void getShadowJarRelocations(List<Relocation> relocations) {
         Task shadowJar = getProject().getTasksByName("shadowJar", true)
@@ -396,54 +380,4 @@ public abstract class GenerateDependencyDownloadResourceTask extends DefaultTask
         }
         list.add(index, value);
     }
-
-    private List<Dependency> processDependency(ResolvedDependency dependency, String hashingAlgorithm) throws NoSuchAlgorithmException, IOException {
-        String hash = null;
-        String snapshotVersion = null;
-        String classifier = null;
-        for (ResolvedArtifact moduleArtifact : dependency.getModuleArtifacts()) {
-            if (!moduleArtifact.getType().equals("jar")) {
-                continue;
-            }
-
-            String currentClassifier = moduleArtifact.getClassifier();
-            if (currentClassifier != null) {
-                classifier = currentClassifier;
-            }
-
-            File file = moduleArtifact.getFile();
-            MessageDigest digest = MessageDigest.getInstance(hashingAlgorithm);
-            hash = HashUtil.getFileHash(file.toPath(), digest);
-
-            ComponentArtifactIdentifier componentArtifactIdentifier = moduleArtifact.getId();
-            ComponentIdentifier componentIdentifier = componentArtifactIdentifier.getComponentIdentifier();
-            if (componentIdentifier instanceof MavenUniqueSnapshotComponentIdentifier) {
-                snapshotVersion = ((MavenUniqueSnapshotComponentIdentifier) componentIdentifier).getTimestampedVersion();
-            }
-            break;
-        }
-
-        List<Dependency> dependencies = new ArrayList<>();
-        if (hash != null) {
-            String group = dependency.getModuleGroup();
-            String module = dependency.getModuleName();
-            String version = dependency.getModuleVersion();
-            String finalVersion = snapshotVersion != null ? version + ":" + snapshotVersion : version;
-            if (finalVersion.endsWith("-SNAPSHOT")) {
-                Logger logger = getLogger();
-                logger.warn("");
-                logger.warn(group + ":" + module + " resolved to a non-versioned snapshot version: " + version);
-                logger.warn("This is usually caused by the dependency being resolved from mavenLocal()");
-                logger.warn("and the local repository containing the dependency with the version '" + version + "' (without a timestamp)");
-            }
-            dependencies.add(new Dependency(group, module, finalVersion, classifier, hash));
-        }
-
-        for (ResolvedDependency child : dependency.getChildren()) {
-            dependencies.addAll(
-                    processDependency(child, hashingAlgorithm)
-            );
-        }
-        return dependencies;
-    }
 }
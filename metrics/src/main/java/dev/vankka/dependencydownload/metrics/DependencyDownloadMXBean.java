@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.metrics;
+
+import java.util.Map;
+
+/**
+ * The attributes exposed over JMX by {@link JmxDependencyMetrics}.
+ */
+@SuppressWarnings("unused") // API
+public interface DependencyDownloadMXBean {
+
+    /**
+     * @return the amount of dependencies downloaded
+     */
+    long getDownloads();
+
+    /**
+     * @return the amount of dependencies that failed to download
+     */
+    long getDownloadFailures();
+
+    /**
+     * @return the total time spent downloading dependencies in milliseconds
+     */
+    long getDownloadTimeMillis();
+
+    /**
+     * @return the amount of dependencies that were already downloaded
+     */
+    long getCacheHits();
+
+    /**
+     * @return the amount of dependencies that had to be downloaded
+     */
+    long getCacheMisses();
+
+    /**
+     * @return the amount of bytes downloaded
+     */
+    long getBytesDownloaded();
+
+    /**
+     * @return the amount of dependencies relocated
+     */
+    long getRelocations();
+
+    /**
+     * @return the amount of dependencies that failed to relocate
+     */
+    long getRelocationFailures();
+
+    /**
+     * @return the total time spent relocating dependencies in milliseconds
+     */
+    long getRelocationTimeMillis();
+
+    /**
+     * @return the amount of dependencies appended to the classpath
+     */
+    long getLoads();
+
+    /**
+     * @return the amount of dependencies that failed to be appended to the classpath
+     */
+    long getLoadFailures();
+
+    /**
+     * @return the total time spent appending dependencies to the classpath in milliseconds
+     */
+    long getLoadTimeMillis();
+
+    /**
+     * @return the total time spent hashing files in milliseconds
+     */
+    long getHashTimeMillis();
+
+    /**
+     * @return the amount of requests by repository host
+     */
+    Map<String, Long> getRepositoryRequests();
+
+    /**
+     * @return the amount of failed requests by repository host
+     */
+    Map<String, Long> getRepositoryFailures();
+
+    /**
+     * @return the amount of bytes downloaded by repository host
+     */
+    Map<String, Long> getRepositoryBytes();
+}
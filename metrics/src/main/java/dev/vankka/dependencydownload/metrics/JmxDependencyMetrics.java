@@ -0,0 +1,254 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.metrics;
+
+import dev.vankka.dependencydownload.DependencyManagerStats;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.listener.DependencyListener;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exposes the work done by {@link dev.vankka.dependencydownload.DependencyManager}s as a JMX MXBean, without any dependencies.
+ * Add it as a listener to the managers and {@link #register() register} it to the platform MBean server.
+ */
+@SuppressWarnings("unused") // API
+public class JmxDependencyMetrics implements DependencyListener, DependencyDownloadMXBean {
+
+    /**
+     * The default name the MXBean is registered with.
+     */
+    public static final String DEFAULT_OBJECT_NAME = "dev.vankka.dependencydownload:type=DependencyDownload";
+
+    private final LongAdder[] completed = adders();
+    private final LongAdder[] failed = adders();
+    private final LongAdder[] time = adders();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder hashTime = new LongAdder();
+    private final Map<String, LongAdder> repositoryRequests = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> repositoryFailures = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> repositoryBytes = new ConcurrentHashMap<>();
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[DependencyManagerStats.Phase.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Registers this MXBean to the platform MBean server with the {@link #DEFAULT_OBJECT_NAME}.
+     * @return the name it was registered with
+     * @throws JMException if registering fails, for example if another MBean is already registered with the name
+     */
+    public ObjectName register() throws JMException {
+        return register(defaultObjectName());
+    }
+
+    /**
+     * Registers this MXBean to the platform MBean server.
+     * @param name the name to register with
+     * @return the name it was registered with
+     * @throws JMException if registering fails, for example if another MBean is already registered with the name
+     */
+    public ObjectName register(@NotNull ObjectName name) throws JMException {
+        return ManagementFactory.getPlatformMBeanServer().registerMBean(this, name).getObjectName();
+    }
+
+    /**
+     * Unregisters the MXBean with the provided name from the platform MBean server, if it is registered.
+     * @param name the name it was registered with
+     * @throws JMException if unregistering fails
+     */
+    public static void unregister(@NotNull ObjectName name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static ObjectName defaultObjectName() {
+        try {
+            return new ObjectName(DEFAULT_OBJECT_NAME);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void phaseCompleted(
+            @NotNull DependencyManagerStats.Phase phase,
+            @NotNull Dependency dependency,
+            @NotNull Outcome outcome,
+            @NotNull Duration time
+    ) {
+        int index = phase.ordinal();
+        if (phase == DependencyManagerStats.Phase.DOWNLOAD) {
+            // Failed downloads are counted by the download failures
+            if (outcome == Outcome.SKIPPED) {
+                cacheHits.increment();
+            } else if (outcome == Outcome.COMPLETED) {
+                cacheMisses.increment();
+            }
+        }
+        if (outcome == Outcome.COMPLETED) {
+            completed[index].increment();
+        } else if (outcome == Outcome.FAILED) {
+            failed[index].increment();
+        }
+        this.time[index].add(time.toNanos());
+    }
+
+    @Override
+    public void repositoryRequest(
+            @NotNull Dependency dependency,
+            @NotNull Repository repository,
+            @Nullable Throwable failure,
+            long bytes,
+            @NotNull Duration time
+    ) {
+        String host = repository.getHost();
+        repositoryRequests.computeIfAbsent(host, key -> new LongAdder()).increment();
+        if (failure != null) {
+            repositoryFailures.computeIfAbsent(host, key -> new LongAdder()).increment();
+            return;
+        }
+        repositoryBytes.computeIfAbsent(host, key -> new LongAdder()).add(bytes);
+        this.bytes.add(bytes);
+    }
+
+    @Override
+    public void fileHashed(@NotNull Dependency dependency, long bytes, @NotNull Duration time) {
+        hashTime.add(time.toNanos());
+    }
+
+    @Override
+    public long getDownloads() {
+        return completed[DependencyManagerStats.Phase.DOWNLOAD.ordinal()].sum();
+    }
+
+    @Override
+    public long getDownloadFailures() {
+        return failed[DependencyManagerStats.Phase.DOWNLOAD.ordinal()].sum();
+    }
+
+    @Override
+    public long getDownloadTimeMillis() {
+        return millis(time[DependencyManagerStats.Phase.DOWNLOAD.ordinal()]);
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public long getBytesDownloaded() {
+        return bytes.sum();
+    }
+
+    @Override
+    public long getRelocations() {
+        return completed[DependencyManagerStats.Phase.RELOCATE.ordinal()].sum();
+    }
+
+    @Override
+    public long getRelocationFailures() {
+        return failed[DependencyManagerStats.Phase.RELOCATE.ordinal()].sum();
+    }
+
+    @Override
+    public long getRelocationTimeMillis() {
+        return millis(time[DependencyManagerStats.Phase.RELOCATE.ordinal()]);
+    }
+
+    @Override
+    public long getLoads() {
+        return completed[DependencyManagerStats.Phase.LOAD.ordinal()].sum();
+    }
+
+    @Override
+    public long getLoadFailures() {
+        return failed[DependencyManagerStats.Phase.LOAD.ordinal()].sum();
+    }
+
+    @Override
+    public long getLoadTimeMillis() {
+        return millis(time[DependencyManagerStats.Phase.LOAD.ordinal()]);
+    }
+
+    @Override
+    public long getHashTimeMillis() {
+        return millis(hashTime);
+    }
+
+    @Override
+    public Map<String, Long> getRepositoryRequests() {
+        return sums(repositoryRequests);
+    }
+
+    @Override
+    public Map<String, Long> getRepositoryFailures() {
+        return sums(repositoryFailures);
+    }
+
+    @Override
+    public Map<String, Long> getRepositoryBytes() {
+        return sums(repositoryBytes);
+    }
+
+    private static long millis(LongAdder nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> adders) {
+        Map<String, Long> sums = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : adders.entrySet()) {
+            sums.put(entry.getKey(), entry.getValue().sum());
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.metrics;
+
+import dev.vankka.dependencydownload.DependencyManagerStats;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.listener.DependencyListener;
+import dev.vankka.dependencydownload.repository.Repository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Records the work done by {@link dev.vankka.dependencydownload.DependencyManager}s as Micrometer meters.
+ * Add it as a listener to the managers and bind it to a {@link MeterRegistry}, nothing is recorded before it is bound.
+ * <ul>
+ *     <li>{@code dependencydownload.downloads}, {@code dependencydownload.relocations} and {@code dependencydownload.loads}:
+ *     timers per dependency tagged by {@code outcome} ({@code completed}, {@code skipped} or {@code failed})</li>
+ *     <li>{@code dependencydownload.cache}: a counter tagged by {@code result} ({@code hit} or {@code miss})</li>
+ *     <li>{@code dependencydownload.repository.requests}: a timer tagged by {@code repository} and {@code outcome} ({@code success} or {@code failure})</li>
+ *     <li>{@code dependencydownload.repository.bytes}: a distribution summary of the bytes per download tagged by {@code repository}</li>
+ *     <li>{@code dependencydownload.hashes}: a timer for hashing files</li>
+ * </ul>
+ */
+@SuppressWarnings("unused") // API
+public class MicrometerDependencyMetrics implements DependencyListener, MeterBinder {
+
+    private static final String PREFIX = "dependencydownload.";
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void phaseCompleted(
+            @NotNull DependencyManagerStats.Phase phase,
+            @NotNull Dependency dependency,
+            @NotNull Outcome outcome,
+            @NotNull Duration time
+    ) {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+
+        String name;
+        switch (phase) {
+            case DOWNLOAD:
+                name = "downloads";
+                // Failed downloads are counted by the downloads timer
+                if (outcome != Outcome.FAILED) {
+                    Counter.builder(PREFIX + "cache")
+                            .description("Dependencies that were already downloaded (hit) or had to be downloaded (miss)")
+                            .tag("result", outcome == Outcome.SKIPPED ? "hit" : "miss")
+                            .register(registry)
+                            .increment();
+                }
+                break;
+            case RELOCATE:
+                name = "relocations";
+                break;
+            case LOAD:
+                name = "loads";
+                break;
+            default:
+                return;
+        }
+
+        Timer.builder(PREFIX + name)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(registry)
+                .record(time);
+    }
+
+    @Override
+    public void repositoryRequest(
+            @NotNull Dependency dependency,
+            @NotNull Repository repository,
+            @Nullable Throwable failure,
+            long bytes,
+            @NotNull Duration time
+    ) {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+
+        String host = repository.getHost();
+        Timer.builder(PREFIX + "repository.requests")
+                .tag("repository", host)
+                .tag("outcome", failure == null ? "success" : "failure")
+                .register(registry)
+                .record(time);
+        if (failure == null) {
+            DistributionSummary.builder(PREFIX + "repository.bytes")
+                    .baseUnit("bytes")
+                    .tag("repository", host)
+                    .register(registry)
+                    .record(bytes);
+        }
+    }
+
+    @Override
+    public void fileHashed(@NotNull Dependency dependency, long bytes, @NotNull Duration time) {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+
+        Timer.builder(PREFIX + "hashes")
+                .register(registry)
+                .record(time);
+    }
+}
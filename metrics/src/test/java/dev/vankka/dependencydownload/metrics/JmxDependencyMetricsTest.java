@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.metrics;
+
+import dev.vankka.dependencydownload.DependencyManagerStats.Phase;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.listener.DependencyListener.Outcome;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JmxDependencyMetricsTest {
+
+    private static final Dependency DEPENDENCY = new MavenDependency("test", "jmx", "1.0.0", null, "", "SHA-256");
+    private static final Repository REPOSITORY = new Repository() {
+        @Override
+        public String getHost() {
+            return "https://repository.example";
+        }
+
+        @Override
+        public URL createURL(Dependency dependency) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    public void attributesTest() throws JMException {
+        JmxDependencyMetrics metrics = new JmxDependencyMetrics();
+        ObjectName name = metrics.register(new ObjectName("dev.vankka.dependencydownload:type=Test"));
+        try {
+            metrics.repositoryRequest(DEPENDENCY, REPOSITORY, new FileNotFoundException(), 0, Duration.ofMillis(5));
+            metrics.repositoryRequest(DEPENDENCY, REPOSITORY, null, 1_000, Duration.ofMillis(10));
+            metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.COMPLETED, Duration.ofMillis(20));
+            metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.SKIPPED, Duration.ofMillis(1));
+            metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.FAILED, Duration.ofMillis(2));
+            metrics.phaseCompleted(Phase.RELOCATE, DEPENDENCY, Outcome.FAILED, Duration.ofMillis(3));
+            metrics.phaseCompleted(Phase.LOAD, DEPENDENCY, Outcome.COMPLETED, Duration.ofMillis(4));
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "Downloads"));
+            assertEquals(1L, server.getAttribute(name, "DownloadFailures"));
+            assertEquals(23L, server.getAttribute(name, "DownloadTimeMillis"));
+            assertEquals(1L, server.getAttribute(name, "CacheHits"));
+            assertEquals(1L, server.getAttribute(name, "CacheMisses"), "failed downloads are not cache misses");
+            assertEquals(1_000L, server.getAttribute(name, "BytesDownloaded"));
+            assertEquals(0L, server.getAttribute(name, "Relocations"));
+            assertEquals(1L, server.getAttribute(name, "RelocationFailures"));
+            assertEquals(1L, server.getAttribute(name, "Loads"));
+
+            TabularData requests = (TabularData) server.getAttribute(name, "RepositoryRequests");
+            CompositeData row = requests.get(new Object[] {REPOSITORY.getHost()});
+            assertEquals(2L, row.get("value"));
+            assertEquals(1L, metrics.getRepositoryFailures().get(REPOSITORY.getHost()));
+        } finally {
+            JmxDependencyMetrics.unregister(name);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.metrics;
+
+import dev.vankka.dependencydownload.DependencyManagerStats.Phase;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.listener.DependencyListener.Outcome;
+import dev.vankka.dependencydownload.repository.Repository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MicrometerDependencyMetricsTest {
+
+    private static final Dependency DEPENDENCY = new MavenDependency("test", "micrometer", "1.0.0", null, "", "SHA-256");
+    private static final Repository REPOSITORY = new Repository() {
+        @Override
+        public String getHost() {
+            return "https://repository.example";
+        }
+
+        @Override
+        public URL createURL(Dependency dependency) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    public void metersTest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerDependencyMetrics metrics = new MicrometerDependencyMetrics();
+
+        // Not bound yet
+        metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.COMPLETED, Duration.ofMillis(100));
+
+        metrics.bindTo(registry);
+        metrics.repositoryRequest(DEPENDENCY, REPOSITORY, new FileNotFoundException(), 0, Duration.ofMillis(5));
+        metrics.repositoryRequest(DEPENDENCY, REPOSITORY, null, 1_000, Duration.ofMillis(10));
+        metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.COMPLETED, Duration.ofMillis(20));
+        metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.SKIPPED, Duration.ofMillis(1));
+        metrics.phaseCompleted(Phase.DOWNLOAD, DEPENDENCY, Outcome.FAILED, Duration.ofMillis(2));
+        metrics.phaseCompleted(Phase.RELOCATE, DEPENDENCY, Outcome.FAILED, Duration.ofMillis(3));
+        metrics.phaseCompleted(Phase.LOAD, DEPENDENCY, Outcome.COMPLETED, Duration.ofMillis(4));
+        metrics.fileHashed(DEPENDENCY, 1_000, Duration.ofMillis(1));
+
+        Timer downloads = registry.get("dependencydownload.downloads").tag("outcome", "completed").timer();
+        assertEquals(1L, downloads.count());
+        assertEquals(20D, downloads.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1L, registry.get("dependencydownload.downloads").tag("outcome", "skipped").timer().count());
+        assertEquals(1L, registry.get("dependencydownload.downloads").tag("outcome", "failed").timer().count());
+
+        assertEquals(1D, registry.get("dependencydownload.cache").tag("result", "hit").counter().count());
+        assertEquals(1D, registry.get("dependencydownload.cache").tag("result", "miss").counter().count(), "failed downloads are not cache misses");
+
+        assertEquals(1L, registry.get("dependencydownload.relocations").tag("outcome", "failed").timer().count());
+        assertNull(registry.find("dependencydownload.relocations").tag("outcome", "completed").timer());
+        assertEquals(1L, registry.get("dependencydownload.loads").tag("outcome", "completed").timer().count());
+
+        String host = REPOSITORY.getHost();
+        assertEquals(1L, registry.get("dependencydownload.repository.requests").tag("repository", host).tag("outcome", "success").timer().count());
+        assertEquals(1L, registry.get("dependencydownload.repository.requests").tag("repository", host).tag("outcome", "failure").timer().count());
+        assertEquals(1_000D, registry.get("dependencydownload.repository.bytes").tag("repository", host).summary().totalAmount());
+        assertEquals(1L, registry.get("dependencydownload.hashes").timer().count());
+    }
+}
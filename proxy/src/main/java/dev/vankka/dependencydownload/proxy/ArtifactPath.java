@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.proxy;
+
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The coordinates of a jar file requested by its path on a maven repository.
+ */
+final class ArtifactPath {
+
+    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+    private static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("\\d{8}\\.\\d{6}-\\d+");
+
+    /**
+     * Parses a path such as {@code com/example/artifact/1.0.0/artifact-1.0.0-classifier.jar}.
+     * @param path the path, without a slash at the beginning
+     * @return the coordinates, or {@code null} if the path isn't a jar in the maven layout
+     */
+    @Nullable
+    static ArtifactPath parse(String path) {
+        String[] segments = path.split("/");
+        if (segments.length < 4) {
+            return null;
+        }
+        for (String segment : segments) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return null;
+            }
+        }
+
+        String fileName = segments[segments.length - 1];
+        String version = segments[segments.length - 2];
+        String artifactId = segments[segments.length - 3];
+        String groupId = String.join(".", Arrays.copyOf(segments, segments.length - 3));
+        if (!fileName.endsWith(".jar") || !fileName.startsWith(artifactId + '-')) {
+            return null;
+        }
+
+        // <version>[-<classifier>] or <timestamped version>[-<classifier>]
+        String fileVersion = fileName.substring(artifactId.length() + 1, fileName.length() - ".jar".length());
+        String snapshotVersion = null;
+        String classifier;
+        if (fileVersion.equals(version)) {
+            classifier = null;
+        } else if (fileVersion.startsWith(version + '-')) {
+            classifier = fileVersion.substring(version.length() + 1);
+        } else if (version.endsWith('-' + SNAPSHOT_SUFFIX)) {
+            String base = version.substring(0, version.length() - SNAPSHOT_SUFFIX.length());
+            if (!fileVersion.startsWith(base)) {
+                return null;
+            }
+
+            String timestamp = fileVersion.substring(base.length());
+            int classifierStart = timestamp.indexOf('-', timestamp.indexOf('-') + 1);
+            Matcher matcher = SNAPSHOT_TIMESTAMP.matcher(classifierStart != -1 ? timestamp.substring(0, classifierStart) : timestamp);
+            if (!matcher.matches()) {
+                return null;
+            }
+            snapshotVersion = base + matcher.group();
+            classifier = classifierStart != -1 ? timestamp.substring(classifierStart + 1) : null;
+        } else {
+            return null;
+        }
+        if (classifier != null && classifier.isEmpty()) {
+            return null;
+        }
+
+        ArtifactPath artifactPath = new ArtifactPath(groupId, artifactId, version, classifier, snapshotVersion);
+        // Only accept the canonical path, so every artifact has exactly one path
+        return artifactPath.toDependency("0", "SHA-1").getMavenPath().equals(path) ? artifactPath : null;
+    }
+
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    private final String classifier;
+    private final String snapshotVersion;
+
+    private ArtifactPath(String groupId, String artifactId, String version, String classifier, String snapshotVersion) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.classifier = classifier;
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    /**
+     * Creates the dependency for this path with the provided hash.
+     * @param hash the expected hash of the jar
+     * @param hashingAlgorithm the algorithm of the hash
+     * @return the dependency
+     */
+    MavenDependency toDependency(String hash, String hashingAlgorithm) {
+        return new MavenDependency(groupId, artifactId, version, classifier, snapshotVersion, hash, hashingAlgorithm);
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.proxy;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import dev.vankka.dependencydownload.DependencyManager;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.download.RetryPolicy;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.MissingArtifactCache;
+import dev.vankka.dependencydownload.repository.Repository;
+import dev.vankka.dependencydownload.repository.SiblingFileRepository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.net.ssl.SSLContext;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A caching proxy for maven repositories, serving jars in the maven layout from a {@link DependencyPathProvider} cache.
+ * Jars that aren't cached yet are downloaded from the upstream repositories with a {@link DependencyManager},
+ * verified against the upstream {@code .sha1} checksum. Concurrent requests for the same jar share one download.
+ * The verified checksum is stored next to the cached jar, so cached jars are served without contacting upstream after a restart.
+ * <p>
+ * Clients can use the proxy with a {@link dev.vankka.dependencydownload.repository.MavenRepository} pointed at {@link #getUrl()}.
+ * Repositories only allow https by default, so the proxy should be given a {@link SSLContext} unless the clients allow plain http.
+ */
+@SuppressWarnings("unused") // API
+public class RepositoryProxyServer implements AutoCloseable {
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-1";
+    private static final String CHECKSUM_EXTENSION = ".sha1";
+
+    private final DependencyPathProvider dependencyPathProvider;
+    private final List<Repository> repositories;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * The dependency (with the hash) for each path that has been downloaded.
+     */
+    private final Map<String, MavenDependency> dependencies = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Path>> inProgress = new ConcurrentHashMap<>();
+
+    private volatile DownloadEngine downloadEngine = DownloadEngine.urlConnection();
+    private volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+
+    /**
+     * Creates a plain http proxy server, the server needs to be {@link #start() started}.
+     *
+     * @param address the address to bind to, use port {@code 0} for any free port
+     * @param dependencyPathProvider the provider for the paths to cache jars at
+     * @param repositories the upstream repositories, in order
+     * @throws IOException if binding to the address fails
+     */
+    public RepositoryProxyServer(
+            @NotNull InetSocketAddress address,
+            @NotNull DependencyPathProvider dependencyPathProvider,
+            @NotNull List<Repository> repositories
+    ) throws IOException {
+        this(address, null, dependencyPathProvider, repositories);
+    }
+
+    /**
+     * Creates a proxy server, the server needs to be {@link #start() started}.
+     *
+     * @param address the address to bind to, use port {@code 0} for any free port
+     * @param sslContext the context for serving https or {@code null} for plain http
+     * @param dependencyPathProvider the provider for the paths to cache jars at
+     * @param repositories the upstream repositories, in order
+     * @throws IOException if binding to the address fails
+     */
+    public RepositoryProxyServer(
+            @NotNull InetSocketAddress address,
+            @Nullable SSLContext sslContext,
+            @NotNull DependencyPathProvider dependencyPathProvider,
+            @NotNull List<Repository> repositories
+    ) throws IOException {
+        this.dependencyPathProvider = dependencyPathProvider;
+        this.repositories = new ArrayList<>(repositories);
+
+        if (sslContext != null) {
+            HttpsServer httpsServer = HttpsServer.create(address, 0);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+            this.server = httpsServer;
+        } else {
+            this.server = HttpServer.create(address, 0);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "DependencyDownload Proxy #" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    /**
+     * Gets the engine used to download from the upstream repositories.
+     * @return the download engine
+     */
+    @NotNull
+    public DownloadEngine getDownloadEngine() {
+        return downloadEngine;
+    }
+
+    /**
+     * Sets the engine used to download from the upstream repositories, defaults to {@link DownloadEngine#urlConnection()}.
+     * @param downloadEngine the download engine
+     * @return this proxy server
+     */
+    public RepositoryProxyServer setDownloadEngine(@NotNull DownloadEngine downloadEngine) {
+        this.downloadEngine = downloadEngine;
+        return this;
+    }
+
+    /**
+     * Gets the retry policy for downloading from the upstream repositories.
+     * @return the retry policy
+     */
+    @NotNull
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry policy for downloading from the upstream repositories, defaults to {@link RetryPolicy#NONE}.
+     * @param retryPolicy the retry policy
+     * @return this proxy server
+     */
+    public RepositoryProxyServer setRetryPolicy(@NotNull RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Starts accepting requests.
+     * @return this proxy server
+     */
+    public RepositoryProxyServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Gets the address the server is bound to.
+     * @return the address
+     */
+    @NotNull
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Gets the url for clients to use as the maven repository host.
+     * @return the url, without a slash at the end
+     */
+    @NotNull
+    public String getUrl() {
+        InetSocketAddress address = getAddress();
+        String host = address.getAddress().getHostAddress();
+        if (host.indexOf(':') != -1) {
+            host = '[' + host + ']';
+        }
+        return (server instanceof HttpsServer ? "https" : "http") + "://" + host + ':' + address.getPort();
+    }
+
+    /**
+     * Stops the server, requests that are being handled are aborted.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        boolean head = method.equals("HEAD");
+        if (!head && !method.equals("GET")) {
+            exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+            exchange.sendResponseHeaders(405, -1);
+            return;
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        ArtifactPath artifactPath = path.startsWith("/") ? ArtifactPath.parse(path.substring(1)) : null;
+        if (artifactPath == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+
+        Path file;
+        try {
+            file = getFile(path.substring(1), artifactPath);
+        } catch (FileNotFoundException e) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        } catch (IOException | RuntimeException e) {
+            exchange.sendResponseHeaders(502, -1);
+            return;
+        }
+
+        sendFile(exchange, file, head);
+    }
+
+    /**
+     * Gets the cached file for the path, downloading it if it isn't cached. Only one download runs per path at a time.
+     */
+    private Path getFile(String path, ArtifactPath artifactPath) throws IOException {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inProgress.putIfAbsent(path, future);
+        if (existing != null) {
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + path);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        try {
+            Path file = download(path, artifactPath);
+            future.complete(file);
+            return file;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inProgress.remove(path, future);
+        }
+    }
+
+    private Path download(String path, ArtifactPath artifactPath) throws IOException {
+        MavenDependency dependency = dependencies.get(path);
+        if (dependency == null) {
+            String checksum = readStoredChecksum(artifactPath);
+            if (checksum != null) {
+                dependency = artifactPath.toDependency(checksum, CHECKSUM_ALGORITHM);
+            }
+        }
+        if (dependency != null) {
+            Path storagePath = dependencyPathProvider.getStoragePath(dependency);
+            if (Files.exists(storagePath)) {
+                // Files are only stored after being verified
+                dependencies.put(path, dependency);
+                return storagePath;
+            }
+        } else {
+            dependency = artifactPath.toDependency(getChecksum(artifactPath), CHECKSUM_ALGORITHM);
+        }
+
+        DependencyManager dependencyManager = new DependencyManager(dependencyPathProvider)
+                .setDownloadEngine(downloadEngine)
+                .setRetryPolicy(retryPolicy);
+        dependencyManager.addDependencies(dependency);
+        try {
+            dependencyManager.downloadAll(null, repositories).join();
+        } catch (CompletionException e) {
+            throw new IOException("Failed to download " + path, e.getCause());
+        }
+
+        writeStoredChecksum(artifactPath, dependency.getHash());
+        dependencies.put(path, dependency);
+        return dependencyPathProvider.getStoragePath(dependency);
+    }
+
+    /**
+     * The verified checksum of a cached jar is stored next to the jar's dependency path,
+     * so cached jars can be served after a restart without requesting the checksum from upstream.
+     */
+    private Path getStoredChecksumPath(ArtifactPath artifactPath) {
+        Path dependencyPath = dependencyPathProvider.getDependencyPath(artifactPath.toDependency("0", CHECKSUM_ALGORITHM), false);
+        return dependencyPath.resolveSibling(dependencyPath.getFileName() + CHECKSUM_EXTENSION);
+    }
+
+    @Nullable
+    private String readStoredChecksum(ArtifactPath artifactPath) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(getStoredChecksumPath(artifactPath))) {
+            return SiblingFileRepository.readChecksum(inputStream);
+        } catch (NoSuchFileException ignored) {
+            return null;
+        }
+    }
+
+    private void writeStoredChecksum(ArtifactPath artifactPath, String checksum) throws IOException {
+        Path checksumPath = getStoredChecksumPath(artifactPath);
+        String random = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        Path temporaryPath = checksumPath.resolveSibling(checksumPath.getFileName() + "." + random + ".tmp");
+        try {
+            Files.write(temporaryPath, checksum.getBytes(StandardCharsets.US_ASCII));
+            try {
+                Files.move(temporaryPath, checksumPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temporaryPath, checksumPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Gets the checksum of the jar from the first upstream repository that has it.
+     * @throws FileNotFoundException if none of the repositories have the jar
+     */
+    private String getChecksum(ArtifactPath artifactPath) throws IOException {
+        Dependency dependency = artifactPath.toDependency("0", CHECKSUM_ALGORITHM);
+        IOException failure = new IOException("Failed to get checksum");
+        boolean notFound = true;
+        for (Repository repository : repositories) {
+            try (DownloadResponse response = downloadEngine.open(SiblingFileRepository.jarSibling(repository, CHECKSUM_EXTENSION), dependency)) {
+                String checksum = SiblingFileRepository.readChecksum(response.getInputStream());
+                if (checksum != null) {
+                    return checksum;
+                }
+                notFound = false;
+                failure.addSuppressed(new IOException("Invalid checksum from " + repository.getHost()));
+            } catch (IOException e) {
+                notFound &= MissingArtifactCache.isNotFound(e);
+                failure.addSuppressed(e);
+            }
+        }
+        if (notFound) {
+            FileNotFoundException exception = new FileNotFoundException(dependency.getGAV());
+            exception.initCause(failure);
+            throw exception;
+        }
+        throw failure;
+    }
+
+    private void sendFile(HttpExchange exchange, Path file, boolean head) throws IOException {
+        long size = Files.size(file);
+        long start = 0;
+        long end = size - 1;
+        int responseCode = 200;
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/java-archive");
+        headers.set("Accept-Ranges", "bytes");
+
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        long[] requestedRange = range != null ? parseRange(range, size) : null;
+        if (requestedRange != null) {
+            if (requestedRange.length == 0) {
+                headers.set("Content-Range", "bytes */" + size);
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+            start = requestedRange[0];
+            end = requestedRange[1];
+            responseCode = 206;
+            headers.set("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long length = end - start + 1;
+        if (head) {
+            headers.set("Content-Length", String.valueOf(length));
+            exchange.sendResponseHeaders(responseCode, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(responseCode, length);
+        try (
+                FileChannel fileChannel = FileChannel.open(file);
+                OutputStream outputStream = exchange.getResponseBody()
+        ) {
+            WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+            long position = start;
+            while (position <= end) {
+                position += fileChannel.transferTo(position, end - position + 1, outputChannel);
+            }
+        }
+    }
+
+    /**
+     * Parses a single {@code bytes} range.
+     * @return the first and last byte, an empty array if the range is not satisfiable or {@code null} to ignore the range
+     */
+    @Nullable
+    private static long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') != -1) {
+            return null;
+        }
+
+        String[] parts = range.substring("bytes=".length()).trim().split("-", 2);
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (parts[0].isEmpty()) {
+                // The last n bytes
+                long suffix = Long.parseLong(parts[1]);
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(parts[0]);
+                end = parts[1].isEmpty() ? size - 1 : Math.min(size - 1, Long.parseLong(parts[1]));
+            }
+            if (start >= size || start > end) {
+                return new long[0];
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.proxy;
+
+import dev.vankka.dependencydownload.DependencyManager;
+import dev.vankka.dependencydownload.common.util.HashUtil;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.MavenRepository;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepositoryProxyServerTest {
+
+    private static final String UPSTREAM = "https://upstream.invalid";
+
+    @Test
+    public void proxyTest() throws Exception {
+        Path cacheDirectory = Paths.get("build", "integration-test-proxy", "cache");
+        UpstreamEngine upstream = new UpstreamEngine();
+        byte[] content = randomBytes(50_000);
+        MavenDependency dependency = upstream.addFile("proxied", content);
+
+        try (RepositoryProxyServer proxy = createProxy(cacheDirectory, upstream)) {
+            DependencyManager dependencyManager = new DependencyManager(
+                    DependencyPathProvider.directory(Paths.get("build", "integration-test-proxy", "client")));
+            dependencyManager.addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            dependencyManager.downloadAll(null, Collections.singletonList(clientRepository(proxy))).join();
+            assertArrayEquals(content, Files.readAllBytes(dependencyManager.getPathForDependency(dependency, false)));
+
+            // Served from the cache the second time
+            assertArrayEquals(content, get(proxy, dependency.getMavenPath()));
+            assertEquals(1, upstream.count(dependency.getMavenPath()), "jar downloaded from upstream once");
+            assertEquals(1, upstream.count(dependency.getMavenPath() + ".sha1"), "checksum downloaded from upstream once");
+        }
+    }
+
+    @Test
+    public void persistedChecksumTest() throws Exception {
+        Path cacheDirectory = Paths.get("build", "integration-test-proxy", "persisted");
+        UpstreamEngine upstream = new UpstreamEngine();
+        byte[] content = randomBytes(30_000);
+        MavenDependency dependency = upstream.addFile("persisted", content);
+
+        try (RepositoryProxyServer proxy = createProxy(cacheDirectory, upstream)) {
+            assertArrayEquals(content, get(proxy, dependency.getMavenPath()));
+        }
+
+        // A restarted proxy serves the cached jar while upstream is down
+        upstream.offline = true;
+        try (RepositoryProxyServer proxy = startProxy(cacheDirectory, upstream)) {
+            assertArrayEquals(content, get(proxy, dependency.getMavenPath()));
+        }
+        assertEquals(1, upstream.count(dependency.getMavenPath() + ".sha1"), "checksum downloaded from upstream once");
+    }
+
+    @Test
+    public void coalescedRequestsTest() throws Exception {
+        Path cacheDirectory = Paths.get("build", "integration-test-proxy", "coalesced");
+        UpstreamEngine upstream = new UpstreamEngine();
+        upstream.responseDelay = 200;
+        byte[] content = randomBytes(20_000);
+        MavenDependency dependency = upstream.addFile("coalesced", content);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try (RepositoryProxyServer proxy = createProxy(cacheDirectory, upstream)) {
+            List<Future<byte[]>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executorService.submit(() -> get(proxy, dependency.getMavenPath())));
+            }
+            for (Future<byte[]> response : responses) {
+                assertArrayEquals(content, response.get());
+            }
+            assertEquals(1, upstream.count(dependency.getMavenPath()), "concurrent requests downloaded once");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void notFoundTest() throws Exception {
+        Path cacheDirectory = Paths.get("build", "integration-test-proxy", "cache");
+        try (RepositoryProxyServer proxy = createProxy(cacheDirectory, new UpstreamEngine())) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(proxy.getUrl() + "/test/missing/1.0.0/missing-1.0.0.jar").openConnection();
+            assertEquals(404, connection.getResponseCode());
+
+            connection = (HttpURLConnection) new URL(proxy.getUrl() + "/not/a/jar.txt").openConnection();
+            assertEquals(404, connection.getResponseCode());
+        }
+    }
+
+    @Test
+    public void rangeTest() throws Exception {
+        Path cacheDirectory = Paths.get("build", "integration-test-proxy", "ranged");
+        UpstreamEngine upstream = new UpstreamEngine();
+        byte[] content = randomBytes(10_000);
+        MavenDependency dependency = upstream.addFile("ranged", content);
+
+        try (RepositoryProxyServer proxy = createProxy(cacheDirectory, upstream)) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(proxy.getUrl() + "/" + dependency.getMavenPath()).openConnection();
+            connection.setRequestProperty("Range", "bytes=100-199");
+            assertEquals(206, connection.getResponseCode());
+            assertEquals("bytes 100-199/10000", connection.getHeaderField("Content-Range"));
+
+            byte[] expected = new byte[100];
+            System.arraycopy(content, 100, expected, 0, 100);
+            try (InputStream inputStream = connection.getInputStream()) {
+                assertArrayEquals(expected, readAll(inputStream));
+            }
+        }
+    }
+
+    private RepositoryProxyServer createProxy(Path cacheDirectory, UpstreamEngine upstream) throws IOException {
+        // Start every test with an empty cache
+        if (Files.exists(cacheDirectory)) {
+            try (Stream<Path> paths = Files.list(cacheDirectory)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    Files.delete(path);
+                }
+            }
+        }
+        return startProxy(cacheDirectory, upstream);
+    }
+
+    private RepositoryProxyServer startProxy(Path cacheDirectory, UpstreamEngine upstream) throws IOException {
+        return new RepositoryProxyServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                DependencyPathProvider.directory(cacheDirectory),
+                Collections.singletonList(new MavenRepository(UPSTREAM))
+        ).setDownloadEngine(upstream).start();
+    }
+
+    private Repository clientRepository(RepositoryProxyServer proxy) {
+        return new MavenRepository(proxy.getUrl()) {
+            @Override
+            public URLConnection openConnection(Dependency dependency) throws IOException {
+                // Plain http is only allowed for tests
+                return createURL(dependency).openConnection();
+            }
+        };
+    }
+
+    private static byte[] get(RepositoryProxyServer proxy, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(proxy.getUrl() + "/" + path).openConnection();
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream inputStream = connection.getInputStream()) {
+            return readAll(inputStream);
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] randomBytes(int amount) {
+        byte[] bytes = new byte[amount];
+        new Random(amount).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * A stand-in for the upstream repository, serving files from memory.
+     */
+    private static class UpstreamEngine implements DownloadEngine {
+
+        private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+        private final List<String> requests = new CopyOnWriteArrayList<>();
+        private volatile long responseDelay = 0;
+        private volatile boolean offline = false;
+
+        public MavenDependency addFile(String artifactId, byte[] content) throws NoSuchAlgorithmException {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(content);
+            MavenDependency dependency = new MavenDependency("test", artifactId, "1.0.0", null, HashUtil.getHash(sha256), "SHA-256");
+
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            sha1.update(content);
+            files.put(dependency.getMavenPath(), content);
+            files.put(dependency.getMavenPath() + ".sha1", HashUtil.getHash(sha1).getBytes(StandardCharsets.US_ASCII));
+            return dependency;
+        }
+
+        public long count(String path) {
+            return requests.stream().filter(path::equals).count();
+        }
+
+        @Override
+        public @NotNull DownloadResponse open(
+                @NotNull Repository repository,
+                @NotNull Dependency dependency,
+                long rangeStart,
+                long rangeEnd
+        ) throws IOException {
+            String url = repository.createURL(dependency).toString();
+            if (offline) {
+                throw new IOException("Upstream is down");
+            }
+            String path = url.substring(UPSTREAM.length() + 1);
+            requests.add(path);
+            try {
+                Thread.sleep(responseDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            byte[] content = files.get(path);
+            if (content == null) {
+                throw new ResponseCodeException(404, url);
+            }
+            return new DownloadResponse() {
+                @Override
+                public int getResponseCode() {
+                    return 200;
+                }
+
+                @Override
+                public long getContentLength() {
+                    return content.length;
+                }
+
+                @Override
+                public String getHeader(@NotNull String name) {
+                    return null;
+                }
+
+                @Override
+                public @NotNull InputStream getInputStream() {
+                    return new ByteArrayInputStream(content);
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+    }
+}
@@ -25,16 +25,25 @@
 package dev.vankka.dependencydownload;
 
 import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.BandwidthLimiter;
+import dev.vankka.dependencydownload.download.ConcurrencyLimiter;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.RetryPolicy;
+import dev.vankka.dependencydownload.listener.DependencyListener;
 import dev.vankka.dependencydownload.logger.Logger;
 import dev.vankka.dependencydownload.path.CleanupPathProvider;
 import dev.vankka.dependencydownload.path.DependencyPathProvider;
 import dev.vankka.dependencydownload.relocation.Relocation;
+import dev.vankka.dependencydownload.repository.MissingArtifactCache;
+import dev.vankka.dependencydownload.repository.RepositorySelector;
 import dev.vankka.dependencydownload.resource.DependencyDownloadResource;
 import org.jetbrains.annotations.CheckReturnValue;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -44,6 +53,8 @@ import java.util.*;
 public class ApplicationDependencyManager {
 
     private final DependencyManager dependencyManager;
+    private final List<StatsRecorder> statsRecorders = new ArrayList<>();
+    private DependencyManagerStats loadedStats;
 
     /**
      * Creates a {@link ApplicationDependencyManager}.
@@ -79,6 +90,191 @@ public class ApplicationDependencyManager {
         return dependencyManager.getLogger();
     }
 
+    /**
+     * Gets the download engine used by {@link DependencyManager}s created by this {@link ApplicationDependencyManager}.
+     * @return the instance of {@link DownloadEngine} being used
+     */
+    @NotNull
+    public DownloadEngine getDownloadEngine() {
+        return dependencyManager.getDownloadEngine();
+    }
+
+    /**
+     * Sets the download engine, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param downloadEngine the download engine, for example {@link DownloadEngine#httpClient()}
+     */
+    @NotNull
+    public ApplicationDependencyManager setDownloadEngine(@NotNull DownloadEngine downloadEngine) {
+        synchronized (dependencyManager) {
+            dependencyManager.setDownloadEngine(downloadEngine);
+        }
+        return this;
+    }
+
+    /**
+     * If {@link DependencyManager}s created by this {@link ApplicationDependencyManager} hash existing files before skipping their download.
+     * @return {@code true} if existing files are verified
+     * @see DependencyManager#setVerifyExistingFiles(boolean)
+     */
+    public boolean isVerifyExistingFiles() {
+        return dependencyManager.isVerifyExistingFiles();
+    }
+
+    /**
+     * Sets if existing files should be hashed before skipping their download, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param verifyExistingFiles if existing files should be verified
+     * @see DependencyManager#setVerifyExistingFiles(boolean)
+     */
+    @NotNull
+    public ApplicationDependencyManager setVerifyExistingFiles(boolean verifyExistingFiles) {
+        synchronized (dependencyManager) {
+            dependencyManager.setVerifyExistingFiles(verifyExistingFiles);
+        }
+        return this;
+    }
+
+    /**
+     * If {@link DependencyManager}s created by this {@link ApplicationDependencyManager} resume interrupted downloads.
+     * @return {@code true} if downloads are resumable
+     * @see DependencyManager#setResumableDownloads(boolean)
+     */
+    public boolean isResumableDownloads() {
+        return dependencyManager.isResumableDownloads();
+    }
+
+    /**
+     * Sets if interrupted downloads should be resumed, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param resumableDownloads if downloads should be resumable
+     * @see DependencyManager#setResumableDownloads(boolean)
+     */
+    @NotNull
+    public ApplicationDependencyManager setResumableDownloads(boolean resumableDownloads) {
+        synchronized (dependencyManager) {
+            dependencyManager.setResumableDownloads(resumableDownloads);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the amount of byte ranges large dependencies are downloaded in simultaneously,
+     * it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param segments the amount of segments, {@code 1} to disable
+     * @param threshold the minimum size (in bytes) of a dependency to download it in segments
+     * @see DependencyManager#setSegmentedDownloads(int, long)
+     */
+    @NotNull
+    public ApplicationDependencyManager setSegmentedDownloads(int segments, long threshold) {
+        synchronized (dependencyManager) {
+            dependencyManager.setSegmentedDownloads(segments, threshold);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the delay before the same request is started against the next repository,
+     * it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param hedgingDelay the delay or {@code null} to disable hedging
+     * @see DependencyManager#setHedgingDelay(Duration)
+     */
+    @NotNull
+    public ApplicationDependencyManager setHedgingDelay(@Nullable Duration hedgingDelay) {
+        synchronized (dependencyManager) {
+            dependencyManager.setHedgingDelay(hedgingDelay);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the repository selector, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param repositorySelector the repository selector
+     * @see DependencyManager#setRepositorySelector(RepositorySelector)
+     */
+    @NotNull
+    public ApplicationDependencyManager setRepositorySelector(@NotNull RepositorySelector repositorySelector) {
+        synchronized (dependencyManager) {
+            dependencyManager.setRepositorySelector(repositorySelector);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the missing artifact cache, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param missingArtifactCache the missing artifact cache or {@code null} to ask every repository
+     * @see DependencyManager#setMissingArtifactCache(MissingArtifactCache)
+     */
+    @NotNull
+    public ApplicationDependencyManager setMissingArtifactCache(@Nullable MissingArtifactCache missingArtifactCache) {
+        synchronized (dependencyManager) {
+            dependencyManager.setMissingArtifactCache(missingArtifactCache);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the bandwidth limiter, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param bandwidthLimiter the bandwidth limiter or {@code null} to not limit downloads
+     * @see DependencyManager#setBandwidthLimiter(BandwidthLimiter)
+     */
+    @NotNull
+    public ApplicationDependencyManager setBandwidthLimiter(@Nullable BandwidthLimiter bandwidthLimiter) {
+        synchronized (dependencyManager) {
+            dependencyManager.setBandwidthLimiter(bandwidthLimiter);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the concurrency limiter, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param concurrencyLimiter the concurrency limiter or {@code null} to not limit requests
+     * @see DependencyManager#setConcurrencyLimiter(ConcurrencyLimiter)
+     */
+    @NotNull
+    public ApplicationDependencyManager setConcurrencyLimiter(@Nullable ConcurrencyLimiter concurrencyLimiter) {
+        synchronized (dependencyManager) {
+            dependencyManager.setConcurrencyLimiter(concurrencyLimiter);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the retry policy, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param retryPolicy the retry policy
+     * @see DependencyManager#setRetryPolicy(RetryPolicy)
+     */
+    @NotNull
+    public ApplicationDependencyManager setRetryPolicy(@NotNull RetryPolicy retryPolicy) {
+        synchronized (dependencyManager) {
+            dependencyManager.setRetryPolicy(retryPolicy);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the minimum time between download progress updates, it will be used in all {@link DependencyManager}s created by this manager after being set.
+     * @param progressInterval the interval or {@code null} to not report progress
+     * @see DependencyManager#setProgressInterval(Duration)
+     */
+    @NotNull
+    public ApplicationDependencyManager setProgressInterval(@Nullable Duration progressInterval) {
+        synchronized (dependencyManager) {
+            dependencyManager.setProgressInterval(progressInterval);
+        }
+        return this;
+    }
+
+    /**
+     * Adds listeners, they will be used in all {@link DependencyManager}s created by this manager after being added.
+     * @param listeners the listeners to add
+     * @see DependencyManager#addListeners(DependencyListener...)
+     */
+    @NotNull
+    public ApplicationDependencyManager addListeners(@NotNull DependencyListener... listeners) {
+        synchronized (dependencyManager) {
+            dependencyManager.addListeners(listeners);
+        }
+        return this;
+    }
+
     /**
      * Adds the provided relocations to this {@link ApplicationDependencyManager},
      * they will be used in all {@link DependencyManager}s created by this manager after being added.
@@ -152,14 +348,16 @@ public class ApplicationDependencyManager {
         DependencyManager dependencyManager = new DependencyManager(getDependencyPathProvider(), getLogger());
         dependencyManager.addDependencies(dependencies);
         synchronized (this.dependencyManager) {
+            dependencyManager.inheritSettings(this.dependencyManager);
             dependencyManager.addRelocations(this.dependencyManager.getRelocations());
         }
+        addStatsRecorder(dependencyManager.getStatsRecorder());
         return dependencyManager;
     }
 
     /**
      * Includes the dependencies and relocations from the provided {@link DependencyManager},
-     * the {@link DependencyPathProvider} and {@link Logger} will be preserved from the provided {@link DependencyManager}.
+     * the {@link DependencyPathProvider}, {@link Logger} and download settings will be preserved from the provided {@link DependencyManager}.
      * <p>
      * The returned {@link DependencyManager} will only include dependencies that have not been downloaded yet,
      * and will include all the relocations from this manager (including ones from the provided {@link DependencyManager}).
@@ -176,13 +374,56 @@ public class ApplicationDependencyManager {
         }
 
         DependencyManager dependencyManager = new DependencyManager(manager.getDependencyPathProvider(), manager.getLogger());
+        dependencyManager.inheritSettings(manager);
         dependencyManager.addDependencies(dependencies);
         synchronized (this.dependencyManager) {
             dependencyManager.addRelocations(this.dependencyManager.getRelocations());
         }
+        addStatsRecorder(dependencyManager.getStatsRecorder());
         return dependencyManager;
     }
 
+    /**
+     * Gets a snapshot of the statistics of all the {@link DependencyManager}s created by this {@link ApplicationDependencyManager},
+     * phases span from the first manager starting the phase until the last one finishing it.
+     *
+     * @return the combined statistics
+     * @see DependencyManager#getStats()
+     */
+    @NotNull
+    public DependencyManagerStats getStats() {
+        synchronized (statsRecorders) {
+            List<DependencyManagerStats> stats = new ArrayList<>(statsRecorders.size() + 1);
+            if (loadedStats != null) {
+                stats.add(loadedStats);
+            }
+            for (StatsRecorder recorder : statsRecorders) {
+                stats.add(recorder.snapshot());
+            }
+            return DependencyManagerStats.combine(stats);
+        }
+    }
+
+    /**
+     * Tracks the statistics of a manager until it has been loaded, after which they're folded into {@link #loadedStats}.
+     */
+    private void addStatsRecorder(StatsRecorder recorder) {
+        synchronized (statsRecorders) {
+            statsRecorders.add(recorder);
+        }
+        recorder.whenLoaded(() -> {
+            synchronized (statsRecorders) {
+                if (!statsRecorders.remove(recorder)) {
+                    return;
+                }
+                DependencyManagerStats stats = recorder.snapshot();
+                loadedStats = loadedStats != null
+                              ? DependencyManagerStats.combine(Arrays.asList(loadedStats, stats))
+                              : stats;
+            }
+        });
+    }
+
     /**
      * Gets the {@link Path} where the given {@link Dependency} will be stored once downloaded.
      *
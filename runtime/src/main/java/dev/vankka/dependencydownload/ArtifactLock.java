@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * An exclusive lock on a single artifact's path, held against other threads of this JVM and other processes sharing the directory.
+ * <p>
+ * Other processes are excluded with a {@link FileLock} on a {@code .lock} file next to the artifact. File locks are held by the
+ * whole JVM, so threads of this JVM are excluded with a {@link Semaphore} per lock file first, which is removed once no thread uses it.
+ * Lock files are never deleted, deleting a lock file while another process waits on it would let a third process lock a new file.
+ */
+final class ArtifactLock implements Closeable {
+
+    static final String LOCK_FILE_SUFFIX = ".lock";
+
+    private static final Map<Path, Semaphore> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockPath;
+    private final Semaphore localLock;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+
+    private ArtifactLock(Path lockPath, Semaphore localLock, FileChannel channel, FileLock fileLock) {
+        this.lockPath = lockPath;
+        this.localLock = localLock;
+        this.channel = channel;
+        this.fileLock = fileLock;
+    }
+
+    /**
+     * Acquires the lock for the artifact, waiting for it on the current thread.
+     */
+    static ArtifactLock acquire(Path artifactPath) throws IOException {
+        Path lockPath = getLockPath(artifactPath);
+        Semaphore localLock;
+        do {
+            localLock = LOCAL_LOCKS.computeIfAbsent(lockPath, key -> new Semaphore(1));
+            try {
+                localLock.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for lock on " + artifactPath);
+            }
+        } while (!isCurrent(lockPath, localLock));
+
+        FileChannel channel = null;
+        try {
+            channel = openChannel(lockPath);
+            return new ArtifactLock(lockPath, localLock, channel, channel.lock());
+        } catch (Throwable t) {
+            closeQuietly(channel);
+            releaseLocal(lockPath, localLock);
+            throw t;
+        }
+    }
+
+    /**
+     * Acquires the lock for the artifact if it isn't held by another thread or process.
+     * @return the lock, or {@code null} if it is held elsewhere
+     */
+    static ArtifactLock tryAcquire(Path artifactPath) throws IOException {
+        Path lockPath = getLockPath(artifactPath);
+        Semaphore localLock;
+        do {
+            localLock = LOCAL_LOCKS.computeIfAbsent(lockPath, key -> new Semaphore(1));
+            if (!localLock.tryAcquire()) {
+                return null;
+            }
+        } while (!isCurrent(lockPath, localLock));
+
+        FileChannel channel = null;
+        try {
+            channel = openChannel(lockPath);
+            FileLock fileLock = channel.tryLock();
+            if (fileLock == null) {
+                closeQuietly(channel);
+                releaseLocal(lockPath, localLock);
+                return null;
+            }
+            return new ArtifactLock(lockPath, localLock, channel, fileLock);
+        } catch (Throwable t) {
+            closeQuietly(channel);
+            releaseLocal(lockPath, localLock);
+            throw t;
+        }
+    }
+
+    /**
+     * Checks that the acquired semaphore wasn't removed by the previous holder before it was released,
+     * otherwise it is released again and the caller has to acquire the current one.
+     */
+    private static boolean isCurrent(Path lockPath, Semaphore localLock) {
+        if (LOCAL_LOCKS.get(lockPath) == localLock) {
+            return true;
+        }
+        localLock.release();
+        return false;
+    }
+
+    /**
+     * Releases the semaphore, removing it first if no other thread is waiting for it.
+     */
+    private static void releaseLocal(Path lockPath, Semaphore localLock) {
+        LOCAL_LOCKS.computeIfPresent(
+                lockPath,
+                (key, semaphore) -> semaphore == localLock && !semaphore.hasQueuedThreads() ? null : semaphore
+        );
+        localLock.release();
+    }
+
+    static boolean isLockFile(Path path) {
+        return path.getFileName().toString().endsWith(LOCK_FILE_SUFFIX);
+    }
+
+    private static Path getLockPath(Path artifactPath) {
+        Path absolutePath = artifactPath.toAbsolutePath().normalize();
+        return absolutePath.resolveSibling(absolutePath.getFileName() + LOCK_FILE_SUFFIX);
+    }
+
+    private static FileChannel openChannel(Path lockPath) throws IOException {
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            fileLock.release();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                releaseLocal(lockPath, localLock);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct {@link ByteBuffer}s for copying downloads, direct buffers are expensive to allocate and are not
+ * garbage collected promptly, so they are reused between downloads instead.
+ */
+final class BufferPool {
+
+    /**
+     * The maximum amount of idle buffers kept per size.
+     */
+    private static final int MAX_POOLED = 32;
+
+    private static final Map<Integer, Pool> POOLS = new ConcurrentHashMap<>();
+
+    private BufferPool() {}
+
+    /**
+     * Takes a cleared buffer of the given capacity from the pool, allocating a new one if none are available.
+     */
+    static ByteBuffer acquire(int capacity) {
+        ByteBuffer buffer = POOLS.computeIfAbsent(capacity, key -> new Pool()).poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool, the buffer must not be used after being released.
+     */
+    static void release(ByteBuffer buffer) {
+        Pool pool = POOLS.get(buffer.capacity());
+        if (pool != null) {
+            pool.offer(buffer);
+        }
+    }
+
+    private static class Pool {
+
+        private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private ByteBuffer poll() {
+            ByteBuffer buffer = buffers.poll();
+            if (buffer != null) {
+                size.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        private void offer(ByteBuffer buffer) {
+            if (size.incrementAndGet() > MAX_POOLED) {
+                size.decrementAndGet();
+                return;
+            }
+            buffers.offer(buffer);
+        }
+    }
+}
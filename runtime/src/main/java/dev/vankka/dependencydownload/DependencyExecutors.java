@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Built-in {@link Executor}s for the steps of {@link DependencyManager}, so that an executor doesn't need to be tuned for downloading.
+ */
+@SuppressWarnings("unused") // API
+public final class DependencyExecutors {
+
+    private static final int BOUNDED_POOL_SIZE = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+    private DependencyExecutors() {}
+
+    /**
+     * If {@link #virtualThreads()} uses virtual threads on this runtime.
+     * @return {@code true} when running on Java 21 or newer
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.factory() != null;
+    }
+
+    /**
+     * Runs each task on a new virtual thread when running on Java 21 or newer, otherwise on the {@link #boundedPool()}.
+     * Blocking downloads and file operations don't tie up a platform thread when using virtual threads,
+     * so hundreds of dependencies can be worked on at once.
+     * The amount of requests to a host can be limited with a {@link dev.vankka.dependencydownload.download.ConcurrencyLimiter}.
+     *
+     * @return the executor
+     */
+    @NotNull
+    public static Executor virtualThreads() {
+        return isVirtualThreadsSupported() ? VirtualThreadExecutor.INSTANCE : boundedPool();
+    }
+
+    /**
+     * A shared pool of daemon threads, twice the amount of available processors (but at least 8),
+     * that are stopped when they have been idle for 30 seconds.
+     *
+     * @return the executor
+     */
+    @NotNull
+    public static Executor boundedPool() {
+        return BoundedPool.INSTANCE;
+    }
+
+    private static final class VirtualThreadExecutor implements Executor {
+
+        private static final VirtualThreadExecutor INSTANCE = new VirtualThreadExecutor(VirtualThreads.factory());
+
+        private final ThreadFactory factory;
+
+        private VirtualThreadExecutor(ThreadFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public void execute(@NotNull Runnable command) {
+            factory.newThread(command).start();
+        }
+    }
+
+    private static final class BoundedPool {
+
+        private static final ThreadPoolExecutor INSTANCE;
+
+        static {
+            AtomicInteger threadCount = new AtomicInteger(0);
+            INSTANCE = new ThreadPoolExecutor(
+                    BOUNDED_POOL_SIZE,
+                    BOUNDED_POOL_SIZE,
+                    30L,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "DependencyDownload Executor #" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+            INSTANCE.allowCoreThreadTimeOut(true);
+        }
+    }
+}
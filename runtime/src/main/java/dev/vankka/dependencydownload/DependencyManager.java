@@ -25,13 +25,27 @@
 package dev.vankka.dependencydownload;
 
 import dev.vankka.dependencydownload.classpath.ClasspathAppender;
+import dev.vankka.dependencydownload.common.util.BundleFormat;
 import dev.vankka.dependencydownload.common.util.HashUtil;
 import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.download.BandwidthLimiter;
+import dev.vankka.dependencydownload.download.ConcurrencyLimiter;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.DownloadProgress;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import dev.vankka.dependencydownload.download.RetryPolicy;
+import dev.vankka.dependencydownload.listener.DependencyListener;
 import dev.vankka.dependencydownload.logger.Logger;
 import dev.vankka.dependencydownload.path.CleanupPathProvider;
 import dev.vankka.dependencydownload.path.DependencyPathProvider;
 import dev.vankka.dependencydownload.relocation.Relocation;
+import dev.vankka.dependencydownload.repository.BundleRepository;
+import dev.vankka.dependencydownload.repository.LocalCacheRepository;
+import dev.vankka.dependencydownload.repository.MissingArtifactCache;
 import dev.vankka.dependencydownload.repository.Repository;
+import dev.vankka.dependencydownload.repository.RepositorySelector;
 import dev.vankka.dependencydownload.resource.DependencyDownloadResource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,19 +55,37 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
-import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * The main class responsible for downloading, optionally relocating and loading in dependencies.
@@ -61,16 +93,42 @@ import java.util.function.Consumer;
 @SuppressWarnings("unused") // API
 public class DependencyManager {
 
+    private static final String PARTIAL_FILE_SUFFIX = ".part";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    private static final long LOCK_RETRY_DELAY = 50L;
+    private static final long DEFAULT_SEGMENTED_DOWNLOAD_THRESHOLD = 8L * 1024 * 1024;
+    private static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
     private final DependencyPathProvider dependencyPathProvider;
     private final Logger logger;
 
     private final List<Dependency> dependencies = new CopyOnWriteArrayList<>();
     private final List<Relocation> relocations = new CopyOnWriteArrayList<>();
+    private final List<DependencyListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile DownloadEngine downloadEngine = DownloadEngine.urlConnection();
+    private volatile boolean resumableDownloads = false;
+    private volatile boolean verifyExistingFiles = true;
+    private volatile int downloadSegments = 1;
+    private volatile long segmentedDownloadThreshold = DEFAULT_SEGMENTED_DOWNLOAD_THRESHOLD;
+    private volatile Duration hedgingDelay = null;
+    private volatile RepositorySelector repositorySelector = RepositorySelector.IN_ORDER;
+    private volatile MissingArtifactCache missingArtifactCache;
+    private volatile BandwidthLimiter bandwidthLimiter;
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+    private volatile RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private volatile Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+    /**
+     * The dependencies extracted from each bundle, bundles are only downloaded once.
+     */
+    private final Map<BundleRepository, CompletableFuture<ExtractedBundle>> bundles = new ConcurrentHashMap<>();
 
     /**
      * 0 initial, 1 download, 2 relocate, 3 load.
      */
     private final AtomicInteger step = new AtomicInteger(0);
+    private final StatsRecorder stats = new StatsRecorder(dependencies);
 
     /**
      * Creates a {@link DependencyManager}.
@@ -108,6 +166,287 @@ public class DependencyManager {
         return logger;
     }
 
+    /**
+     * Gets the download engine used by this {@link DependencyManager}, defaults to {@link DownloadEngine#urlConnection()}.
+     * @return the {@link DownloadEngine} being used
+     */
+    @NotNull
+    public DownloadEngine getDownloadEngine() {
+        return downloadEngine;
+    }
+
+    /**
+     * Sets the download engine used to download dependencies from repositories.
+     * @param downloadEngine the download engine, for example {@link DownloadEngine#httpClient()}
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setDownloadEngine(@NotNull DownloadEngine downloadEngine) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change download engine after downloading");
+        }
+        this.downloadEngine = downloadEngine;
+        return this;
+    }
+
+    /**
+     * If files that already exist at the path for a dependency are hashed before skipping the download, defaults to {@code true}.
+     * @return {@code true} if existing files are verified
+     * @see #setVerifyExistingFiles(boolean)
+     */
+    public boolean isVerifyExistingFiles() {
+        return verifyExistingFiles;
+    }
+
+    /**
+     * Sets if files that already exist at the path for a dependency are hashed before skipping the download.
+     * Downloads are written to a temporary file and only moved to the path for the dependency once verified,
+     * so a file at that path is always complete. Disabling verification skips hashing every dependency on every start,
+     * but files modified by something other than {@link DependencyManager} will not be noticed.
+     *
+     * @param verifyExistingFiles if existing files should be verified
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setVerifyExistingFiles(boolean verifyExistingFiles) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change existing file verification after downloading");
+        }
+        this.verifyExistingFiles = verifyExistingFiles;
+        return this;
+    }
+
+    /**
+     * If interrupted downloads are resumed, defaults to {@code false}.
+     * @return {@code true} if downloads are resumable
+     * @see #setResumableDownloads(boolean)
+     */
+    public boolean isResumableDownloads() {
+        return resumableDownloads;
+    }
+
+    /**
+     * Sets if interrupted downloads should be resumed. When enabled, downloads are written to a {@code .part} file next to
+     * the {@link DependencyPathProvider} path, which is kept if the download fails. The next attempt (from the next repository or
+     * the next time the dependency is downloaded) continues from the last byte of the partial file using a {@code Range} request.
+     * The partial file is moved to the final path once the hash has been verified.
+     *
+     * @param resumableDownloads if downloads should be resumable
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setResumableDownloads(boolean resumableDownloads) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change resumable downloads after downloading");
+        }
+        this.resumableDownloads = resumableDownloads;
+        return this;
+    }
+
+    /**
+     * Gets the amount of byte ranges large dependencies are downloaded in simultaneously, defaults to {@code 1} (disabled).
+     * @return the amount of segments
+     * @see #setSegmentedDownloads(int, long)
+     */
+    public int getDownloadSegments() {
+        return downloadSegments;
+    }
+
+    /**
+     * Gets the minimum size (in bytes) of a dependency for it to be downloaded in segments, defaults to 8 MiB.
+     * @return the threshold in bytes
+     * @see #setSegmentedDownloads(int, long)
+     */
+    public long getSegmentedDownloadThreshold() {
+        return segmentedDownloadThreshold;
+    }
+
+    /**
+     * Sets the amount of byte ranges dependencies larger than the threshold are downloaded in simultaneously.
+     * The ranges are written directly to their position in a preallocated file, the hash is verified once all segments are done.
+     * Segmented downloads are only used if the repository advertises {@code Accept-Ranges: bytes},
+     * if the repository then does not respond with partial content the dependency is downloaded normally.
+     *
+     * @param segments the amount of segments, {@code 1} to disable
+     * @param threshold the minimum size (in bytes) of a dependency to download it in segments
+     * @throws IllegalArgumentException if segments is less than {@code 1}
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setSegmentedDownloads(int segments, long threshold) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("Segments must be at least 1");
+        }
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change segmented downloads after downloading");
+        }
+        this.downloadSegments = segments;
+        this.segmentedDownloadThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Gets the delay before the same request is started against the next repository, defaults to {@code null} (disabled).
+     * @return the hedging delay or {@code null}
+     * @see #setHedgingDelay(Duration)
+     */
+    @Nullable
+    public Duration getHedgingDelay() {
+        return hedgingDelay;
+    }
+
+    /**
+     * Sets the delay after which, if the repository being downloaded from hasn't responded yet,
+     * the same request is started against the next repository. Whichever repository responds first is downloaded from,
+     * and the request to the other repository is cancelled.
+     * Without a hedging delay repositories are tried one-by-one, in order.
+     *
+     * @param hedgingDelay the delay or {@code null} to disable hedging
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setHedgingDelay(@Nullable Duration hedgingDelay) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change hedging delay after downloading");
+        }
+        this.hedgingDelay = hedgingDelay;
+        return this;
+    }
+
+    /**
+     * Gets the repository selector used by this {@link DependencyManager}, defaults to {@link RepositorySelector#IN_ORDER}.
+     * @return the {@link RepositorySelector} being used
+     */
+    @NotNull
+    public RepositorySelector getRepositorySelector() {
+        return repositorySelector;
+    }
+
+    /**
+     * Sets the repository selector, which decides the order repositories are tried in for each dependency.
+     * @param repositorySelector the repository selector, for example {@link dev.vankka.dependencydownload.repository.AdaptiveRepositorySelector}
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setRepositorySelector(@NotNull RepositorySelector repositorySelector) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change repository selector after downloading");
+        }
+        this.repositorySelector = repositorySelector;
+        return this;
+    }
+
+    /**
+     * Gets the missing artifact cache used by this {@link DependencyManager}.
+     * @return the {@link MissingArtifactCache} being used or {@code null} if none is used
+     */
+    @Nullable
+    public MissingArtifactCache getMissingArtifactCache() {
+        return missingArtifactCache;
+    }
+
+    /**
+     * Sets the missing artifact cache, repositories that recently responded with not found for a dependency are
+     * only tried for that dependency after all other repositories failed.
+     * @param missingArtifactCache the missing artifact cache or {@code null} to ask every repository
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setMissingArtifactCache(@Nullable MissingArtifactCache missingArtifactCache) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change missing artifact cache after downloading");
+        }
+        this.missingArtifactCache = missingArtifactCache;
+        return this;
+    }
+
+    /**
+     * Gets the bandwidth limiter used by this {@link DependencyManager}.
+     * @return the {@link BandwidthLimiter} being used or {@code null} if downloads are not limited
+     */
+    @Nullable
+    public BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
+    /**
+     * Sets the bandwidth limiter, the same limiter can be shared between multiple {@link DependencyManager}s to limit them together.
+     * @param bandwidthLimiter the bandwidth limiter or {@code null} to not limit downloads
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setBandwidthLimiter(@Nullable BandwidthLimiter bandwidthLimiter) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change bandwidth limiter after downloading");
+        }
+        this.bandwidthLimiter = bandwidthLimiter;
+        return this;
+    }
+
+    /**
+     * Gets the concurrency limiter used by this {@link DependencyManager}.
+     * @return the {@link ConcurrencyLimiter} being used or {@code null} if requests are not limited
+     */
+    @Nullable
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Sets the concurrency limiter, which limits the amount of in-flight requests per repository host.
+     * Downloads over the limit wait without occupying a thread of the executor provided for downloading.
+     * The same limiter can be shared between multiple {@link DependencyManager}s to limit them together.
+     *
+     * @param concurrencyLimiter the concurrency limiter or {@code null} to not limit requests
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setConcurrencyLimiter(@Nullable ConcurrencyLimiter concurrencyLimiter) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change concurrency limiter after downloading");
+        }
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
+
+    /**
+     * Gets the retry policy used by this {@link DependencyManager}, defaults to {@link RetryPolicy#NONE}.
+     * @return the {@link RetryPolicy} being used
+     */
+    @NotNull
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry policy, which decides if a failed download is tried again from the same repository before moving on to the next one.
+     * @param retryPolicy the retry policy
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setRetryPolicy(@NotNull RetryPolicy retryPolicy) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change retry policy after downloading");
+        }
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Gets the minimum time between {@link Logger#downloadProgress(DownloadProgress)} calls, defaults to 1 second.
+     * @return the interval or {@code null} if progress isn't reported
+     */
+    @Nullable
+    public Duration getProgressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * Sets the minimum time between {@link Logger#downloadProgress(DownloadProgress)} calls during a download.
+     * @param progressInterval the interval or {@code null} to not report progress
+     * @throws IllegalStateException if this method is executed after downloading
+     */
+    public DependencyManager setProgressInterval(@Nullable Duration progressInterval) {
+        if (step.get() > 0) {
+            throw new IllegalStateException("Cannot change progress interval after downloading");
+        }
+        if (progressInterval != null && progressInterval.isNegative()) {
+            throw new IllegalArgumentException("Progress interval cannot be negative");
+        }
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
     /**
      * Adds dependencies to this {@link DependencyManager}.
      * @param dependencies the dependencies to add
@@ -174,6 +513,34 @@ public class DependencyManager {
         return Collections.unmodifiableList(relocations);
     }
 
+    /**
+     * Adds listeners to this {@link DependencyManager}, they are notified of the work done for each dependency.
+     * @param listeners the listeners to add
+     * @see #addListeners(Collection)
+     */
+    public DependencyManager addListeners(@NotNull DependencyListener... listeners) {
+        return addListeners(Arrays.asList(listeners));
+    }
+
+    /**
+     * Adds listeners to this {@link DependencyManager}, they are notified of the work done for each dependency.
+     * @param listeners the listeners to add
+     * @see #addListeners(DependencyListener...)
+     */
+    public DependencyManager addListeners(@NotNull Collection<DependencyListener> listeners) {
+        this.listeners.addAll(listeners);
+        return this;
+    }
+
+    /**
+     * Gets the listeners in this {@link DependencyManager}.
+     * @return an unmodifiable list of listeners
+     */
+    @NotNull
+    public List<DependencyListener> getListeners() {
+        return Collections.unmodifiableList(listeners);
+    }
+
     /**
      * Are this {@link DependencyManager}s dependencies already loaded.
      * @return {@code true} if {@link #load(Executor, ClasspathAppender)} has already been loaded
@@ -182,6 +549,21 @@ public class DependencyManager {
         return step.get() == 3;
     }
 
+    /**
+     * Gets a snapshot of the time spent in each phase and on each dependency, the bytes downloaded,
+     * cache hits and misses and the requests made to repositories. Can be called while the phases are running.
+     *
+     * @return the statistics of this {@link DependencyManager} so far
+     */
+    @NotNull
+    public DependencyManagerStats getStats() {
+        return stats.snapshot();
+    }
+
+    StatsRecorder getStatsRecorder() {
+        return stats;
+    }
+
     /**
      * Loads dependencies and relocations from the resource provided.
      *
@@ -225,14 +607,24 @@ public class DependencyManager {
         }
 
         logger.downloadStart();
+        ProgressTracker progressTracker = new ProgressTracker(logger, progressInterval, dependencies.size());
         try {
-            return forEachDependency(
+            CompletableFuture<Void>[] futures = forEachDependencyAsync(
                     executor,
-                    dependency -> downloadDependency(dependency, repositories, () -> logger.downloadDependency(dependency)),
+                    DependencyManagerStats.Phase.DOWNLOAD,
+                    dependency -> new DependencyDownload(
+                            dependency,
+                            repositories,
+                            executor,
+                            progressTracker,
+                            () -> logger.downloadDependency(dependency)
+                    ).start(),
                     (dependency, cause) -> new RuntimeException("Failed to download dependency " + dependency.getGAV(), cause),
                     logger::downloadSuccess,
                     logger::downloadFailed
             );
+            flushAfter(futures);
+            return futures;
         } finally {
             logger.downloadEnd();
         }
@@ -319,6 +711,7 @@ public class DependencyManager {
             logger.relocateStart();
             return forEachDependency(
                     executor,
+                    DependencyManagerStats.Phase.RELOCATE,
                     dependency -> {
                         logger.relocateDependency(dependency);
                         return relocateDependency(dependency, helper);
@@ -368,6 +761,7 @@ public class DependencyManager {
 
             return forEachDependency(
                     executor,
+                    DependencyManagerStats.Phase.LOAD,
                     dependency -> {
                         logger.loadDependency(dependency);
                         return loadDependency(dependency, classpathAppender, currentStep == 2);
@@ -381,6 +775,170 @@ public class DependencyManager {
         }
     }
 
+    /**
+     * Downloads, relocates and loads all the dependencies in this {@link DependencyManager} as a pipeline.
+     * Uses the {@link ClassLoader} that loaded this class to acquire {@code jar-relocator}.
+     *
+     * @param executor the executor that will run the steps for every dependency, or {@code null} to run sequentially on the current thread
+     * @param repositories an ordered list of repositories that will be tried one-by-one, in order
+     * @param classpathAppender the classpath appender, that will handle loading the files
+     * @return a future that will complete exceptionally if any of the dependencies fail to download, relocate or load,
+     * otherwise completes when all dependencies are loaded
+     * @throws IllegalStateException if dependencies have already been queued for download once
+     * @see #downloadRelocateAndLoadAll(Executor, List, ClassLoader, ClasspathAppender)
+     */
+    public CompletableFuture<Void> downloadRelocateAndLoadAll(
+            @Nullable Executor executor,
+            @NotNull List<Repository> repositories,
+            @NotNull ClasspathAppender classpathAppender
+    ) {
+        return downloadRelocateAndLoadAll(executor, repositories, null, classpathAppender);
+    }
+
+    /**
+     * Downloads, relocates and loads all the dependencies in this {@link DependencyManager} as a pipeline.
+     * Each dependency is relocated as soon as it is downloaded and loaded as soon as it is relocated,
+     * instead of waiting for every dependency to finish the previous step like with
+     * {@link #downloadAll(Executor, List)}, {@link #relocateAll(Executor)} and {@link #loadAll(Executor, ClasspathAppender)}.
+     * <p>
+     * The {@link ClasspathAppender} is still called for one dependency at a time, in the order of {@link #getDependencies()}.
+     * Relocation is skipped and the downloaded files are loaded if there are no relocations.
+     * If a dependency fails, the dependencies after it will not be loaded.
+     *
+     * @param executor the executor that will run the steps for every dependency, or {@code null} to run sequentially on the current thread
+     * @param repositories an ordered list of repositories that will be tried one-by-one, in order
+     * @param jarRelocatorLoader the {@link ClassLoader} to use to load {@code jar-relocator},
+     *                           if this is set to {@code null} the current class loader will be used
+     * @param classpathAppender the classpath appender, that will handle loading the files
+     * @return a future that will complete exceptionally if any of the dependencies fail to download, relocate or load,
+     * otherwise completes when all dependencies are loaded
+     * @throws IllegalStateException if dependencies have already been queued for download once
+     * @see #downloadRelocateAndLoadAll(Executor, List, ClasspathAppender)
+     */
+    public CompletableFuture<Void> downloadRelocateAndLoadAll(
+            @Nullable Executor executor,
+            @NotNull List<Repository> repositories,
+            @Nullable ClassLoader jarRelocatorLoader,
+            @NotNull ClasspathAppender classpathAppender
+    ) {
+        if (repositories.isEmpty()) {
+            throw new IllegalArgumentException("No repositories provided");
+        }
+        // If step is 0 (initial) change to 3 (load), all the steps are queued at once
+        if (!step.compareAndSet(0, 3)) {
+            throw new IllegalStateException("Download has already been executed");
+        }
+
+        boolean relocate = !relocations.isEmpty();
+        JarRelocatorHelper helper = relocate ? new JarRelocatorHelper(
+                jarRelocatorLoader != null ? jarRelocatorLoader : getClass().getClassLoader(),
+                relocations
+        ) : null;
+
+        int size = dependencies.size();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<?>[] downloads = new CompletableFuture[size];
+        CompletableFuture<?>[] relocates = new CompletableFuture[size];
+        CompletableFuture<?>[] loads = new CompletableFuture[size];
+        ProgressTracker progressTracker = new ProgressTracker(logger, progressInterval, size);
+        stats.startPhase(DependencyManagerStats.Phase.DOWNLOAD);
+        if (relocate) {
+            stats.startPhase(DependencyManagerStats.Phase.RELOCATE);
+        }
+        stats.startPhase(DependencyManagerStats.Phase.LOAD);
+
+        logger.downloadStart();
+        if (relocate) {
+            logger.relocateStart();
+        }
+        logger.loadStart();
+        try {
+            CompletableFuture<Void> previousLoad = CompletableFuture.completedFuture(null);
+            for (int index = 0; index < size; index++) {
+                Dependency dependency = dependencies.get(index);
+
+                CompletableFuture<Void> download = runStep(
+                        executor,
+                        DependencyManagerStats.Phase.DOWNLOAD,
+                        dependency,
+                        dep -> new DependencyDownload(
+                                dep,
+                                repositories,
+                                executor,
+                                progressTracker,
+                                () -> logger.downloadDependency(dep)
+                        ).start(),
+                        (dep, cause) -> new RuntimeException("Failed to download dependency " + dep.getGAV(), cause),
+                        logger::downloadSuccess,
+                        logger::downloadFailed
+                );
+                downloads[index] = download;
+
+                CompletableFuture<Void> relocated = download;
+                if (relocate) {
+                    relocated = download.thenCompose(v -> runStep(
+                            executor,
+                            DependencyManagerStats.Phase.RELOCATE,
+                            dependency,
+                            dep -> {
+                                logger.relocateDependency(dep);
+                                return CompletableFuture.completedFuture(relocateDependency(dep, helper));
+                            },
+                            (dep, cause) -> new RuntimeException("Failed to relocate dependency " + dep.getGAV(), cause),
+                            logger::relocateSuccess,
+                            logger::relocateFailed
+                    ));
+                    relocates[index] = relocated;
+                }
+
+                // The classpath is appended to in the order of the dependencies, one at a time
+                CompletableFuture<Void> load = CompletableFuture.allOf(previousLoad, relocated).thenCompose(v -> runStep(
+                        executor,
+                        DependencyManagerStats.Phase.LOAD,
+                        dependency,
+                        dep -> {
+                            logger.loadDependency(dep);
+                            return CompletableFuture.completedFuture(loadDependency(dep, classpathAppender, relocate));
+                        },
+                        (dep, cause) -> new RuntimeException("Failed to load dependency " + dep.getGAV(), cause),
+                        logger::loadSuccess,
+                        logger::loadFailed
+                ));
+                loads[index] = load;
+                previousLoad = load;
+
+                // Fail the pipeline as soon as any step fails, instead of when the loads before it are done
+                relocated.whenComplete((v, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(unwrapCompletion(throwable));
+                    }
+                });
+            }
+
+            previousLoad.whenComplete((v, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(unwrapCompletion(throwable));
+                } else {
+                    result.complete(null);
+                }
+            });
+        } finally {
+            logger.downloadEnd();
+            if (relocate) {
+                logger.relocateEnd();
+            }
+            logger.loadEnd();
+        }
+
+        stats.endPhase(DependencyManagerStats.Phase.DOWNLOAD, downloads);
+        flushAfter(downloads);
+        if (relocate) {
+            stats.endPhase(DependencyManagerStats.Phase.RELOCATE, relocates);
+        }
+        stats.endPhase(DependencyManagerStats.Phase.LOAD, loads);
+        return result;
+    }
+
     /**
      * Gets the {@link Path} where the given {@link Dependency} will be stored once downloaded or relocated.
      *
@@ -396,6 +954,7 @@ public class DependencyManager {
     /**
      * Gets {@link Path}s to all {@link Dependency Dependencies} in this {@link DependencyManager}. Including ones that do not exist.
      * @param relocated the paths for all relocated files, otherwise all unrelocated (downloaded) files
+     * and their {@link DependencyPathProvider#getStoragePath(Dependency) storage paths}
      * @return paths to all dependencies, original or relocated
      * @see #getPathForDependency(Dependency, boolean)
      */
@@ -404,6 +963,9 @@ public class DependencyManager {
         Set<Path> paths = new HashSet<>();
         for (Dependency dependency : dependencies) {
             paths.add(getPathForDependency(dependency, relocated));
+            if (!relocated) {
+                paths.add(dependencyPathProvider.getStoragePath(dependency));
+            }
         }
         return paths;
     }
@@ -445,7 +1007,7 @@ public class DependencyManager {
         Collection<Path> existingPaths = ((CleanupPathProvider) dependencyPathProvider).getPathsForAllStoredDependencies();
         Set<Path> currentPaths = getAllPaths(true);
         for (Path existingPath : existingPaths) {
-            if (Files.isDirectory(existingPath)) {
+            if (Files.isDirectory(existingPath) || ArtifactLock.isLockFile(existingPath)) {
                 continue;
             }
 
@@ -455,40 +1017,65 @@ public class DependencyManager {
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Copies the download settings (but not dependencies or relocations) of the provided manager to this manager.
+     */
+    DependencyManager inheritSettings(DependencyManager other) {
+        return setDownloadEngine(other.getDownloadEngine())
+                .setVerifyExistingFiles(other.isVerifyExistingFiles())
+                .setResumableDownloads(other.isResumableDownloads())
+                .setSegmentedDownloads(other.getDownloadSegments(), other.getSegmentedDownloadThreshold())
+                .setHedgingDelay(other.getHedgingDelay())
+                .setRepositorySelector(other.getRepositorySelector())
+                .setMissingArtifactCache(other.getMissingArtifactCache())
+                .setBandwidthLimiter(other.getBandwidthLimiter())
+                .setConcurrencyLimiter(other.getConcurrencyLimiter())
+                .setRetryPolicy(other.getRetryPolicy())
+                .setProgressInterval(other.getProgressInterval())
+                .addListeners(other.getListeners());
+    }
+
     private CompletableFuture<Void>[] forEachDependency(
             Executor executor,
+            DependencyManagerStats.Phase phase,
             Step<Dependency> runnable,
             BiFunction<Dependency, Throwable, Throwable> dependencyException,
             Consumer<Dependency> successLog,
             BiConsumer<Dependency, Throwable> failLog
+    ) {
+        return forEachDependencyAsync(
+                executor,
+                phase,
+                dependency -> CompletableFuture.completedFuture(runnable.run(dependency)),
+                dependencyException,
+                successLog,
+                failLog
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Void>[] forEachDependencyAsync(
+            Executor executor,
+            DependencyManagerStats.Phase phase,
+            AsyncStep<Dependency> runnable,
+            BiFunction<Dependency, Throwable, Throwable> dependencyException,
+            Consumer<Dependency> successLog,
+            BiConsumer<Dependency, Throwable> failLog
     ) {
         int size = dependencies.size();
         CompletableFuture<Void>[] futures = new CompletableFuture[size];
+        stats.startPhase(phase);
 
         for (int index = 0; index < size; index++) {
-            Dependency dependency = dependencies.get(index);
-
-            CompletableFuture<Void> future = new CompletableFuture<>();
-            Runnable run = () -> {
-                try {
-                    boolean stepPerformed = runnable.run(dependency);
-                    if (stepPerformed) {
-                        successLog.accept(dependency);
-                    }
-
-                    future.complete(null);
-                } catch (Throwable t) {
-                    future.completeExceptionally(dependencyException.apply(dependency, t));
-                    failLog.accept(dependency, t);
-                }
-            };
-
-            if (executor != null) {
-                executor.execute(run);
-            } else {
-                run.run();
-            }
+            CompletableFuture<Void> future = runStep(
+                    executor,
+                    phase,
+                    dependencies.get(index),
+                    runnable,
+                    dependencyException,
+                    successLog,
+                    failLog
+            );
 
             futures[index] = future;
             if (future.isCompletedExceptionally()) {
@@ -497,92 +1084,660 @@ public class DependencyManager {
             }
         }
 
+        stats.endPhase(phase, futures);
         return futures;
     }
 
-    private boolean downloadDependency(Dependency dependency, List<Repository> repositories, Runnable beginDownloadCallback)
-            throws IOException, NoSuchAlgorithmException {
-        Path dependencyPath = getPathForDependency(dependency, false);
-
-        if (!Files.exists(dependencyPath.getParent())) {
-            Files.createDirectories(dependencyPath.getParent());
-        }
-
-        MessageDigest digest = MessageDigest.getInstance(dependency.getHashingAlgorithm());
-        if (Files.exists(dependencyPath)) {
-            String fileHash = HashUtil.getFileHash(dependencyPath, digest);
-            if (fileHash.equals(dependency.getHash())) {
-                // This dependency is already downloaded & the hash matches -> skip download
-                return false;
-            } else {
-                // Hash does not match, delete file
-                Files.delete(dependencyPath);
-            }
-        }
-        beginDownloadCallback.run();
-        Files.createFile(dependencyPath);
-
-        RuntimeException failure = new RuntimeException("All provided repositories failed to download dependency");
-        boolean anyFailures = false;
-        for (Repository repository : repositories) {
+    /**
+     * Runs a single step for a single dependency on the provided executor, recording its statistics
+     * and notifying the listeners and logger.
+     */
+    private CompletableFuture<Void> runStep(
+            Executor executor,
+            DependencyManagerStats.Phase phase,
+            Dependency dependency,
+            AsyncStep<Dependency> runnable,
+            BiFunction<Dependency, Throwable, Throwable> dependencyException,
+            Consumer<Dependency> successLog,
+            BiConsumer<Dependency, Throwable> failLog
+    ) {
+        StatsRecorder.Entry statistics = stats.get(dependency);
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Runnable run = () -> {
+            Duration queued = Duration.ofNanos(System.nanoTime() - queuedAt);
+            FlightRecorderEvent event = FlightRecorderEvent.DISABLED;
+            CompletableFuture<Boolean> stepFuture;
             try {
-                digest.reset();
-                downloadFromRepository(dependency, repository, dependencyPath, digest);
+                notifyListeners(listener -> listener.phaseStarted(phase, dependency, queued));
+                statistics.start(phase);
+                event = FlightRecorderEvents.begin(phase, dependency);
+                stepFuture = runnable.run(dependency);
+            } catch (Throwable t) {
+                stepFuture = new CompletableFuture<>();
+                stepFuture.completeExceptionally(t);
+            }
 
-                String hash = HashUtil.getHash(digest);
-                String dependencyHash = dependency.getHash();
-                if (!hash.equals(dependencyHash)) {
-                    throw new SecurityException("Failed to verify file hash: " + hash + " should've been: " + dependencyHash);
+            FlightRecorderEvent stepEvent = event;
+            stepFuture.whenComplete((stepPerformed, throwable) -> {
+                Throwable failure = throwable;
+                try {
+                    Duration time = Duration.ofNanos(statistics.end(phase));
+                    DependencyListener.Outcome outcome = throwable != null
+                                                         ? DependencyListener.Outcome.FAILED
+                                                         : (stepPerformed ? DependencyListener.Outcome.COMPLETED : DependencyListener.Outcome.SKIPPED);
+                    stepEvent.end(outcome.name().toLowerCase(Locale.ROOT), statistics.getRepository(), statistics.getBytes());
+                    notifyListeners(listener -> listener.phaseCompleted(phase, dependency, outcome, time));
+                    if (throwable == null && stepPerformed) {
+                        successLog.accept(dependency);
+                    }
+                } catch (Throwable t) {
+                    if (failure == null) {
+                        failure = t;
+                    }
+                } finally {
+                    // Observers never decide whether the step finishes
+                    if (failure == null) {
+                        future.complete(null);
+                    } else {
+                        failure = unwrapCompletion(failure);
+                        future.completeExceptionally(dependencyException.apply(dependency, failure));
+                        failLog.accept(dependency, failure);
+                    }
                 }
+            });
+        };
 
-                // Success
-                return true;
+        if (executor != null) {
+            executor.execute(run);
+        } else {
+            run.run();
+        }
+        return future;
+    }
+
+    /**
+     * Notifies every listener, a listener that throws is logged and doesn't stop the others from being notified.
+     */
+    private void notifyListeners(Consumer<DependencyListener> notification) {
+        for (DependencyListener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (Throwable t) {
+                logger.listenerFailed(listener, t);
+            }
+        }
+    }
+
+    /**
+     * Persists the state recorded during the downloads once all of them have completed, instead of after every download,
+     * and deletes the bundled files that no download claimed. Futures that were not started ({@code null}) are ignored.
+     */
+    private void flushAfter(CompletableFuture<?>[] downloads) {
+        RepositorySelector selector = repositorySelector;
+        MissingArtifactCache missingCache = missingArtifactCache;
+        CompletableFuture<?>[] started = Arrays.stream(downloads).filter(Objects::nonNull).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(started).whenComplete((v, t) -> {
+            selector.flush();
+            if (missingCache != null) {
+                missingCache.flush();
+            }
+            for (CompletableFuture<ExtractedBundle> bundle : bundles.values()) {
+                if (bundle.isDone() && !bundle.isCompletedExceptionally()) {
+                    bundle.join().deletePending();
+                }
+            }
+        });
+    }
+
+    private static Throwable unwrapCompletion(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private Path getPartialPath(Path dependencyPath) {
+        return dependencyPath.resolveSibling(dependencyPath.getFileName() + PARTIAL_FILE_SUFFIX);
+    }
+
+    /**
+     * Gets a unique path in the same directory as the provided path, so it can be moved to the provided path atomically.
+     */
+    private Path getTemporaryPath(Path path) {
+        String random = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return path.resolveSibling(path.getFileName() + "." + random + TEMPORARY_FILE_SUFFIX);
+    }
+
+    /**
+     * Creates a hard link to the source file, falling back to a symbolic link (if allowed) and lastly a copy.
+     */
+    private static void linkOrCopy(Path source, Path target, boolean symbolicLink) throws IOException {
+        try {
+            Files.createLink(target, source);
+            return;
+        } catch (IOException | UnsupportedOperationException ignored) {}
+
+        if (symbolicLink) {
+            try {
+                Files.createSymbolicLink(target, source.toAbsolutePath());
+                return;
+            } catch (IOException | UnsupportedOperationException ignored) {}
+        }
+        Files.copy(source, target);
+    }
+
+    /**
+     * Moves a complete file to its final path, readers of the final path either see the previous file or the complete new file.
+     */
+    private void publish(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ignored) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Opens a response from the first remaining repository, or from whichever repository responds first when hedging.
+     * The repositories that were tried are removed from the remaining repositories.
+     * @param permit the permit acquired for the first remaining repository, or {@code null} if there is no {@link ConcurrencyLimiter}
+     * @return the response, or {@code null} if the repositories that were tried failed
+     */
+    private HedgedRequest.Result openResponse(
+            Dependency dependency,
+            List<Repository> remainingRepositories,
+            long offset,
+            BiConsumer<Repository, Throwable> repositoryFailed,
+            @Nullable ConcurrencyLimiter.Permit permit
+    ) throws IOException {
+        Duration delay = hedgingDelay;
+        if (delay == null || remainingRepositories.size() == 1) {
+            Repository repository = remainingRepositories.remove(0);
+            long start = System.nanoTime();
+            try {
+                DownloadResponse response = openLimitedResponse(dependency, repository, offset, permit);
+                return new HedgedRequest.Result(repository, response, System.nanoTime() - start);
             } catch (Exception e) {
-                Files.deleteIfExists(dependencyPath);
-                failure.addSuppressed(e);
-                anyFailures = true;
+                repositoryFailed.accept(repository, e);
+                return null;
             }
         }
-        if (!anyFailures) {
-            throw new IllegalStateException("Nothing failed yet nothing passed");
+
+        // Local caches and bundles are not streamed per dependency, so they are never raced
+        int hedged = 1;
+        while (hedged < remainingRepositories.size() && isStreamed(remainingRepositories.get(hedged))) {
+            hedged++;
+        }
+
+        Repository first = remainingRepositories.get(0);
+        AtomicReference<ConcurrencyLimiter.Permit> firstPermit = new AtomicReference<>(permit);
+        try {
+            return HedgedRequest.open(
+                    remainingRepositories.subList(0, hedged),
+                    delay.toNanos(),
+                    repository -> openLimitedResponse(
+                            dependency,
+                            repository,
+                            offset,
+                            repository == first ? firstPermit.getAndSet(null) : null
+                    ),
+                    repositoryFailed
+            );
+        } finally {
+            // The request to the first repository was cancelled before it started, and never took the permit
+            ConcurrencyLimiter.Permit unused = firstPermit.getAndSet(null);
+            if (unused != null) {
+                unused.close();
+            }
         }
-        throw failure;
     }
 
-    private void downloadFromRepository(
+    private static boolean isStreamed(Repository repository) {
+        return !(repository instanceof LocalCacheRepository) && !(repository instanceof BundleRepository);
+    }
+
+    /**
+     * Opens a response that holds a {@link ConcurrencyLimiter} permit until it is closed.
+     * If a permit wasn't provided, waits for one on the current thread (only used by hedged requests, which have their own threads).
+     */
+    private DownloadResponse openLimitedResponse(
             Dependency dependency,
             Repository repository,
-            Path dependencyPath,
-            MessageDigest digest
+            long offset,
+            @Nullable ConcurrencyLimiter.Permit permit
     ) throws IOException {
-        URLConnection connection = repository.openConnection(dependency);
+        ConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null) {
+            return openResponse(dependency, repository, offset);
+        }
+
+        if (permit == null) {
+            CompletableFuture<ConcurrencyLimiter.Permit> permitFuture = limiter.acquire(repository);
+            try {
+                permit = permitFuture.get();
+            } catch (InterruptedException e) {
+                if (!permitFuture.cancel(false)) {
+                    permitFuture.join().close();
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a request permit");
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to acquire request permit", e.getCause());
+            }
+        }
+
+        try {
+            return new LimitedResponse(openResponse(dependency, repository, offset), permit);
+        } catch (Throwable t) {
+            permit.close();
+            throw t;
+        }
+    }
+
+    private DownloadResponse openResponse(Dependency dependency, Repository repository, long offset) throws IOException {
+        try {
+            return downloadEngine.open(repository, dependency, offset, -1);
+        } catch (ResponseCodeException e) {
+            if (offset == 0 || e.getResponseCode() != 416) {
+                throw e;
+            }
+
+            // Range Not Satisfiable, the partial file is longer than the file on the repository
+            return downloadEngine.open(repository, dependency);
+        }
+    }
+
+    /**
+     * Writes the response to the download path, appending to the bytes already downloaded if the repository responded with the remaining bytes.
+     * @return the amount of bytes that were kept from before, {@code 0} if the file was written from the start
+     */
+    private long downloadFromRepository(
+            Dependency dependency,
+            Repository repository,
+            DownloadResponse response,
+            Path downloadPath,
+            MessageDigest digest,
+            long offset,
+            ProgressTracker.Transfer progress,
+            StatsRecorder.Entry statistics
+    ) throws IOException {
+        if (offset == 0 && SegmentedDownload.isSupported(response, downloadSegments, segmentedDownloadThreshold)) {
+            List<ConcurrencyLimiter.Permit> segmentPermits = acquireSegmentPermits(repository);
+            try {
+                int segments = segmentPermits != null ? segmentPermits.size() + 1 : downloadSegments;
+                if (segments > 1) {
+                    progress.start(response.getContentLength(), 0);
+                    downloadSegmented(dependency, repository, response, downloadPath, digest, segments, progress, statistics);
+                    return 0;
+                }
+            } finally {
+                if (segmentPermits != null) {
+                    segmentPermits.forEach(ConcurrencyLimiter.Permit::close);
+                }
+            }
+        }
+
+        boolean append = offset > 0 && response.isPartial();
+        if (append && response.getRangeStart() != offset) {
+            throw new IOException("Unexpected Content-Range: " + response.getHeader("Content-Range") + " expected to start at " + offset);
+        } else if (offset > 0 && !append) {
+            // Got the entire file instead of the remaining bytes
+            digest.reset();
+        }
+
+        long contentLength = response.getContentLength();
+        if (append) {
+            progress.start(contentLength >= 0 ? offset + contentLength : -1, offset);
+        } else {
+            progress.start(contentLength, 0);
+        }
+        writeResponse(repository, response, downloadPath, digest, append, progress, statistics);
+        return append ? offset : 0;
+    }
+
+    /**
+     * Acquires permits for the additional connections of a segmented download, as many as the host has room for right now.
+     * @return the permits, or {@code null} if there is no {@link ConcurrencyLimiter}
+     */
+    private List<ConcurrencyLimiter.Permit> acquireSegmentPermits(Repository repository) {
+        ConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null) {
+            return null;
+        }
+
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        ConcurrencyLimiter.Permit permit;
+        while (permits.size() < downloadSegments - 1 && (permit = limiter.tryAcquire(repository)) != null) {
+            permits.add(permit);
+        }
+        return permits;
+    }
+
+    private void downloadSegmented(
+            Dependency dependency,
+            Repository repository,
+            DownloadResponse response,
+            Path downloadPath,
+            MessageDigest digest,
+            int segments,
+            ProgressTracker.Transfer progress,
+            StatsRecorder.Entry statistics
+    ) throws IOException {
+        boolean segmented;
+        try {
+            segmented = SegmentedDownload.download(
+                    downloadEngine,
+                    repository,
+                    dependency,
+                    response,
+                    downloadPath,
+                    segments,
+                    bandwidthLimiter,
+                    progress
+            );
+        } catch (IOException e) {
+            // Don't leave a file with gaps in it for resuming
+            Files.deleteIfExists(downloadPath);
+            throw e;
+        }
+        if (segmented) {
+            updateDigest(dependency, downloadPath, digest, true, statistics);
+            return;
+        }
+
+        // Ranges are advertised but not supported
+        try (DownloadResponse fullResponse = downloadEngine.open(repository, dependency)) {
+            progress.start(fullResponse.getContentLength(), 0);
+            writeResponse(repository, fullResponse, downloadPath, digest, false, progress, statistics);
+        }
+    }
+
+    /**
+     * Hashes the entire file to verify it.
+     */
+    private String hashFile(
+            Dependency dependency,
+            Path path,
+            MessageDigest digest,
+            StatsRecorder.Entry statistics
+    ) throws IOException {
+        FlightRecorderEvent event = FlightRecorderEvents.beginHash(dependency);
+        long start = System.nanoTime();
+        String hash = HashUtil.getFileHash(path, digest);
+        long time = System.nanoTime() - start;
+        statistics.hashed(time);
+
+        long size = Files.size(path);
+        event.end(hash.equals(dependency.getHash()) ? FlightRecorderEvent.VERIFIED : FlightRecorderEvent.MISMATCH, null, size);
+        notifyListeners(listener -> listener.fileHashed(dependency, size, Duration.ofNanos(time)));
+        return hash;
+    }
+
+    /**
+     * Updates the digest with the file, the hash is verified by the caller once the whole download has been digested.
+     * @param wholeFile if the file is the whole download, used to report whether it matches the hash
+     */
+    private void updateDigest(
+            Dependency dependency,
+            Path path,
+            MessageDigest digest,
+            boolean wholeFile,
+            StatsRecorder.Entry statistics
+    ) throws IOException {
+        FlightRecorderEvent event = FlightRecorderEvents.beginHash(dependency);
+        long start = System.nanoTime();
+        HashUtil.updateDigest(path, digest);
+        long time = System.nanoTime() - start;
+        statistics.hashed(time);
+
+        long size = Files.size(path);
+        event.end(wholeFile ? getOutcome(dependency, digest) : FlightRecorderEvent.PARTIAL, null, size);
+        notifyListeners(listener -> listener.fileHashed(dependency, size, Duration.ofNanos(time)));
+    }
+
+    /**
+     * Gets whether the digest matches the dependency's hash, without finishing the digest for the caller.
+     */
+    private static String getOutcome(Dependency dependency, MessageDigest digest) {
+        try {
+            String hash = HashUtil.getHash((MessageDigest) digest.clone());
+            return hash.equals(dependency.getHash()) ? FlightRecorderEvent.VERIFIED : FlightRecorderEvent.MISMATCH;
+        } catch (CloneNotSupportedException e) {
+            return FlightRecorderEvent.PARTIAL;
+        }
+    }
+
+    private void writeResponse(
+            Repository repository,
+            DownloadResponse response,
+            Path downloadPath,
+            MessageDigest digest,
+            boolean append,
+            ProgressTracker.Transfer progress,
+            StatsRecorder.Entry statistics
+    ) throws IOException {
+        try (ReadableByteChannel inputChannel = response.getChannel()) {
+            writeChannel(repository, inputChannel, downloadPath, digest, append, progress, statistics);
+        }
+    }
+
+    /**
+     * Writes the channel to the file while updating the digest, the channel is not closed.
+     */
+    private void writeChannel(
+            Repository repository,
+            ReadableByteChannel inputChannel,
+            Path downloadPath,
+            MessageDigest digest,
+            boolean append,
+            @Nullable ProgressTracker.Transfer progress,
+            @Nullable StatsRecorder.Entry statistics
+    ) throws IOException {
+        BandwidthLimiter limiter = bandwidthLimiter;
+        StandardOpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        ByteBuffer buffer = BufferPool.acquire(repository.getBufferSize());
+        try (FileChannel fileChannel = FileChannel.open(downloadPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            int total;
+            while ((total = inputChannel.read(buffer)) != -1) {
+                if (total == 0) {
+                    continue;
+                }
+                if (limiter != null) {
+                    limiter.acquire(repository, total);
+                }
+                if (progress != null) {
+                    progress.transferred(total);
+                }
+
+                buffer.flip();
+                long hashStart = statistics != null ? System.nanoTime() : 0;
+                digest.update(buffer);
+                if (statistics != null) {
+                    statistics.hashed(System.nanoTime() - hashStart);
+                }
+                buffer.rewind();
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+                buffer.clear();
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Streams the bundle, writing every entry that is one of this manager's dependencies to its storage path.
+     * Entries that don't match their dependency's hash are skipped. Stops early if the index shows that the bundle
+     * doesn't contain the requested dependency.
+     * <p>
+     * The requested dependency is locked by the caller, the other entries are only published if their lock is free.
+     * Otherwise they are left pending for the download holding the lock to publish.
+     */
+    private ExtractedBundle extractBundle(
+            BundleRepository repository,
+            Dependency dependency,
+            @Nullable ConcurrencyLimiter.Permit permit
+    ) throws IOException {
+        Map<String, Dependency> dependenciesByPath = new HashMap<>();
+        for (Dependency bundled : dependencies) {
+            if (bundled instanceof MavenDependency) {
+                dependenciesByPath.put(((MavenDependency) bundled).getMavenPath(), bundled);
+            }
+        }
+        String requestedPath = dependency instanceof MavenDependency ? ((MavenDependency) dependency).getMavenPath() : null;
+        Path requestedStoragePath = dependencyPathProvider.getStoragePath(dependency);
+
+        ExtractedBundle extracted = new ExtractedBundle();
+        try (
+                DownloadResponse response = openLimitedResponse(dependency, repository, 0, permit);
+                ZipInputStream inputStream = new ZipInputStream(response.getInputStream())
+        ) {
+            ReadableByteChannel inputChannel = Channels.newChannel(inputStream);
+            Map<String, String> index = null;
+
+            ZipEntry entry;
+            while ((entry = inputStream.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (index == null) {
+                    if (!name.equals(BundleFormat.INDEX_ENTRY)) {
+                        throw new IOException("Bundle " + repository.getUrl() + " does not start with an index");
+                    }
+                    index = readBundleIndex(inputStream);
+                    if (requestedPath == null || !(dependency.getHashingAlgorithm() + " " + dependency.getHash()).equals(index.get(requestedPath))) {
+                        throw new FileNotFoundException("Bundle " + repository.getUrl() + " does not contain " + dependency.getGAV());
+                    }
+                    continue;
+                }
+
+                Dependency bundled = dependenciesByPath.get(name);
+                if (bundled == null || entry.isDirectory()) {
+                    continue;
+                }
+
+                Path storagePath = dependencyPathProvider.getStoragePath(bundled);
+                if (!Files.exists(storagePath.getParent())) {
+                    Files.createDirectories(storagePath.getParent());
+                }
+
+                Path temporaryPath = getTemporaryPath(storagePath);
+                boolean pending = false;
+                try {
+                    MessageDigest digest = MessageDigest.getInstance(bundled.getHashingAlgorithm());
+                    writeChannel(repository, inputChannel, temporaryPath, digest, false, null, null);
+                    if (!HashUtil.getHash(digest).equals(bundled.getHash())) {
+                        // Leave it to the other repositories
+                        continue;
+                    }
+                    if (storagePath.equals(requestedStoragePath)) {
+                        publish(temporaryPath, storagePath);
+                        extracted.published.add(bundled);
+                        continue;
+                    }
+                    try (ArtifactLock lock = ArtifactLock.tryAcquire(storagePath)) {
+                        if (lock != null) {
+                            publish(temporaryPath, storagePath);
+                            extracted.published.add(bundled);
+                            continue;
+                        }
+                    }
+                    extracted.pending.put(bundled, temporaryPath);
+                    pending = true;
+                } catch (NoSuchAlgorithmException ignored) {
+                    // Leave it to the other repositories
+                } finally {
+                    if (!pending) {
+                        Files.deleteIfExists(temporaryPath);
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            extracted.deletePending();
+            throw t;
+        }
+        return extracted;
+    }
+
+    /**
+     * Reads the current entry as a bundle index, without closing the stream.
+     * @return the {@code <hashing algorithm> <hash>} for each path
+     */
+    private static Map<String, String> readBundleIndex(InputStream inputStream) throws IOException {
+        Map<String, String> index = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int separator = line.indexOf(' ');
+            if (separator > 0) {
+                index.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+        }
+        return index;
+    }
 
-        byte[] buffer = new byte[repository.getBufferSize()];
-        try (BufferedInputStream inputStream = new BufferedInputStream(connection.getInputStream())) {
-            try (BufferedOutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(dependencyPath))) {
-                int total;
-                while ((total = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, total);
-                    digest.update(buffer, 0, total);
+    /**
+     * The dependencies of a bundle, once extracted.
+     */
+    private static final class ExtractedBundle {
+
+        /**
+         * Dependencies published to their storage path.
+         */
+        private final Set<Dependency> published = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Verified files of dependencies that were locked during extraction, claimed by the download holding the lock.
+         */
+        private final Map<Dependency, Path> pending = new ConcurrentHashMap<>();
+
+        private void deletePending() {
+            for (Dependency dependency : pending.keySet()) {
+                Path path = pending.remove(dependency);
+                if (path == null) {
+                    continue;
                 }
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {}
             }
         }
     }
 
-    private boolean relocateDependency(Dependency dependency, JarRelocatorHelper helper) {
+    private boolean relocateDependency(Dependency dependency, JarRelocatorHelper helper) throws IOException {
         Path dependencyFile = getPathForDependency(dependency, false);
         Path relocatedFile = getPathForDependency(dependency, true);
+        Path temporaryFile = getTemporaryPath(relocatedFile);
 
-        try {
-            helper.run(dependencyFile, relocatedFile);
+        FileTime lastModified = getLastModifiedTime(relocatedFile);
+        try (ArtifactLock ignored = ArtifactLock.acquire(relocatedFile)) {
+            FileTime lockedLastModified = getLastModifiedTime(relocatedFile);
+            if (lockedLastModified != null && !lockedLastModified.equals(lastModified)) {
+                // Relocated by another thread or process while waiting for the lock
+                return false;
+            }
+
+            helper.run(dependencyFile, temporaryFile);
+            publish(temporaryFile, relocatedFile);
         } catch (InvocationTargetException e) {
             throw new RuntimeException("Failed to run relocation", e.getCause());
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException("Failed to initialize relocator", e);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
         }
         return true;
     }
 
+    private static FileTime getLastModifiedTime(Path path) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (NoSuchFileException ignored) {
+            return null;
+        }
+    }
+
     private boolean loadDependency(
             Dependency dependency,
             ClasspathAppender classpathAppender,
@@ -596,6 +1751,513 @@ public class DependencyManager {
         return true;
     }
 
+    /**
+     * Downloads a single dependency, trying the repositories one at a time (or a few at a time when hedging).
+     * When a {@link ConcurrencyLimiter} is set, each attempt waits for a permit for the repository's host
+     * without occupying a thread of the executor. Retries are scheduled and then submitted back to the executor.
+     */
+    private final class DependencyDownload {
+
+        private final Dependency dependency;
+        private final List<Repository> repositories;
+        private final Executor executor;
+        private final ProgressTracker progressTracker;
+        private final Runnable beginDownloadCallback;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private final boolean resume = resumableDownloads;
+        private final RepositorySelector selector = repositorySelector;
+        private final MissingArtifactCache missingCache = missingArtifactCache;
+        private final RetryPolicy retryPolicy = DependencyManager.this.retryPolicy;
+        private final RuntimeException failure = new RuntimeException("All provided repositories failed to download dependency");
+        private final BiConsumer<Repository, Throwable> repositoryFailed = this::repositoryFailed;
+        private final StatsRecorder.Entry statistics;
+        private final Map<Repository, Integer> attempts = new IdentityHashMap<>();
+        private final List<Repository> retryRepositories = new ArrayList<>();
+        private long retryDelay;
+        private long attemptStart;
+
+        private Path dependencyPath;
+        private Path storagePath;
+        private ArtifactLock lock;
+        private ProgressTracker.Transfer progress;
+        private MessageDigest digest;
+        private List<Repository> remainingRepositories;
+
+        private DependencyDownload(
+                Dependency dependency,
+                List<Repository> repositories,
+                @Nullable Executor executor,
+                ProgressTracker progressTracker,
+                Runnable beginDownloadCallback
+        ) {
+            this.dependency = dependency;
+            this.repositories = repositories;
+            this.executor = executor;
+            this.progressTracker = progressTracker;
+            this.beginDownloadCallback = beginDownloadCallback;
+            this.statistics = stats.get(dependency);
+        }
+
+        /**
+         * @return a future that completes with {@code true} once downloaded, or {@code false} if the file already existed
+         */
+        private CompletableFuture<Boolean> start() throws IOException {
+            dependencyPath = getPathForDependency(dependency, false);
+            storagePath = dependencyPathProvider.getStoragePath(dependency);
+
+            if (!Files.exists(dependencyPath.getParent())) {
+                Files.createDirectories(dependencyPath.getParent());
+            }
+            if (!Files.exists(storagePath.getParent())) {
+                Files.createDirectories(storagePath.getParent());
+            }
+
+            future.whenComplete((downloaded, throwable) -> unlock());
+            lockAndBegin();
+            return future;
+        }
+
+        /**
+         * Locks the dependency against other threads and processes downloading the same dependency,
+         * when it is already locked waits for the download to finish to reuse the downloaded file.
+         */
+        private void lockAndBegin() {
+            try {
+                if (executor == null) {
+                    lock = ArtifactLock.acquire(storagePath);
+                } else if ((lock = ArtifactLock.tryAcquire(storagePath)) == null) {
+                    schedule(this::lockAndBegin, LOCK_RETRY_DELAY);
+                    return;
+                }
+
+                if (prepare()) {
+                    next();
+                } else {
+                    progressTracker.skip();
+                    linkStoredFile();
+                    future.complete(false);
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        /**
+         * Links the path for the dependency to the stored file, if the {@link DependencyPathProvider} stores files elsewhere.
+         * Hard links are preferred, falling back to a symbolic link and lastly a copy.
+         */
+        private void linkStoredFile() throws IOException {
+            if (storagePath.equals(dependencyPath)) {
+                return;
+            }
+            if (Files.exists(dependencyPath) && Files.isSameFile(storagePath, dependencyPath)) {
+                return;
+            }
+
+            Path temporaryPath = getTemporaryPath(dependencyPath);
+            try {
+                linkOrCopy(storagePath, temporaryPath, true);
+                publish(temporaryPath, dependencyPath);
+            } finally {
+                Files.deleteIfExists(temporaryPath);
+            }
+        }
+
+        /**
+         * Hard links (or copies) a file from a local repository after verifying it, instead of streaming it.
+         */
+        private void copyFromLocalRepository(LocalCacheRepository repository) throws IOException {
+            long start = System.nanoTime();
+            List<Path> candidates = repository.getCandidates(dependency);
+            if (candidates.isEmpty()) {
+                throw new NoSuchFileException(repository.createURL(dependency).toString());
+            }
+
+            for (Path candidate : candidates) {
+                if (!hashFile(dependency, candidate, digest, statistics).equals(dependency.getHash())) {
+                    continue;
+                }
+
+                Path temporaryPath = getTemporaryPath(storagePath);
+                try {
+                    linkOrCopy(candidate, temporaryPath, false);
+                    publish(temporaryPath, storagePath);
+                } finally {
+                    Files.deleteIfExists(temporaryPath);
+                }
+
+                long size = Files.size(storagePath);
+                progress.start(size, 0);
+                progress.transferred(size);
+                selector.recordSuccess(repository, dependency, 0, size, System.nanoTime() - start);
+                repositorySucceeded(repository, size);
+                if (missingCache != null) {
+                    missingCache.recordFound(repository, dependency);
+                }
+                return;
+            }
+            throw new SecurityException("Failed to verify file hash: no file in " + repository.getHost() + " matches " + dependency.getHash());
+        }
+
+        /**
+         * Gets the dependency from a bundle, which is downloaded once for all of its dependencies.
+         * Concurrent downloads from the same bundle continue once the first one has extracted it,
+         * without occupying a thread of the executor.
+         */
+        private void attemptBundle(@Nullable ConcurrencyLimiter.Permit permit) {
+            attemptStart = System.nanoTime();
+            BundleRepository repository = (BundleRepository) remainingRepositories.remove(0);
+
+            CompletableFuture<ExtractedBundle> bundle = new CompletableFuture<>();
+            CompletableFuture<ExtractedBundle> existing = bundles.putIfAbsent(repository, bundle);
+            if (existing == null) {
+                try {
+                    bundle.complete(extractBundle(repository, dependency, permit));
+                } catch (Throwable t) {
+                    // Allow trying again later
+                    bundles.remove(repository, bundle);
+                    bundle.completeExceptionally(t);
+                } finally {
+                    if (permit != null) {
+                        permit.close();
+                    }
+                }
+                bundleExtracted(repository, bundle, true);
+                return;
+            }
+
+            if (permit != null) {
+                permit.close();
+            }
+            if (executor == null || existing.isDone()) {
+                // Sequential downloads wait on the current thread
+                bundleExtracted(repository, existing, false);
+                return;
+            }
+
+            existing.whenComplete((extracted, throwable) -> {
+                try {
+                    executor.execute(() -> bundleExtracted(repository, existing, false));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        }
+
+        private void bundleExtracted(BundleRepository repository, CompletableFuture<ExtractedBundle> bundle, boolean extractedHere) {
+            boolean success;
+            try {
+                if (!copyFromBundle(repository, bundle, extractedHere)) {
+                    // The bundle didn't have the dependency that was being downloaded, but it may have this one
+                    remainingRepositories.add(0, repository);
+                    next();
+                    return;
+                }
+                success = true;
+            } catch (Exception e) {
+                repositoryFailed(repository, e);
+                success = false;
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            }
+            attempted(success);
+        }
+
+        /**
+         * @return {@code false} if the bundle was extracted by another download, which didn't find its dependency in it
+         */
+        private boolean copyFromBundle(
+                BundleRepository repository,
+                CompletableFuture<ExtractedBundle> bundle,
+                boolean extractedHere
+        ) throws IOException {
+            ExtractedBundle extracted;
+            try {
+                extracted = bundle.join();
+            } catch (CompletionException e) {
+                Throwable cause = unwrapCompletion(e);
+                if (extractedHere && cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (extractedHere && cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (!extractedHere && cause instanceof FileNotFoundException) {
+                    return false;
+                }
+                throw new IOException("Failed to download bundle " + repository.getUrl(), cause);
+            }
+
+            Path pendingPath = extracted.pending.remove(dependency);
+            if (pendingPath != null) {
+                // Extracted while this download held the lock
+                publish(pendingPath, storagePath);
+            } else if (!extracted.published.contains(dependency) || !Files.exists(storagePath)) {
+                throw new FileNotFoundException("Bundle " + repository.getUrl() + " does not contain " + dependency.getGAV());
+            }
+
+            long size = Files.size(storagePath);
+            progress.start(size, 0);
+            progress.transferred(size);
+            selector.recordSuccess(repository, dependency, 0, size, System.nanoTime() - attemptStart);
+            repositorySucceeded(repository, size);
+            if (missingCache != null) {
+                missingCache.recordFound(repository, dependency);
+            }
+            return true;
+        }
+
+        private void unlock() {
+            if (lock == null) {
+                return;
+            }
+            try {
+                lock.close();
+            } catch (IOException ignored) {}
+        }
+
+        private boolean prepare() throws IOException, NoSuchAlgorithmException {
+            digest = MessageDigest.getInstance(dependency.getHashingAlgorithm());
+            if (Files.exists(storagePath)) {
+                if (!verifyExistingFiles) {
+                    // Files are only published once verified
+                    statistics.cacheHit(true);
+                    return false;
+                }
+
+                String fileHash = hashFile(dependency, storagePath, digest, statistics);
+                if (fileHash.equals(dependency.getHash())) {
+                    // This dependency is already downloaded & the hash matches -> skip download
+                    statistics.cacheHit(true);
+                    return false;
+                } else {
+                    // Hash does not match, delete file
+                    Files.delete(storagePath);
+                }
+            }
+            statistics.cacheHit(false);
+            beginDownloadCallback.run();
+            progress = progressTracker.begin(dependency);
+
+            remainingRepositories = new ArrayList<>();
+            List<Repository> missingFrom = new ArrayList<>();
+            for (Repository repository : selector.select(dependency, repositories)) {
+                if (missingCache != null && missingCache.isMissing(repository, dependency)) {
+                    missingFrom.add(repository);
+                } else {
+                    remainingRepositories.add(repository);
+                }
+            }
+            // Repositories known to not have the dependency are only asked if all others fail
+            remainingRepositories.addAll(missingFrom);
+            return true;
+        }
+
+        /**
+         * Attempts the next repository, once there is room for a request to its host.
+         */
+        private void next() {
+            if (remainingRepositories.isEmpty()) {
+                future.completeExceptionally(
+                        failure.getSuppressed().length == 0
+                        ? new IllegalStateException("Nothing failed yet nothing passed")
+                        : failure
+                );
+                return;
+            }
+
+            ConcurrencyLimiter limiter = concurrencyLimiter;
+            if (limiter == null) {
+                attempt(null);
+                return;
+            }
+
+            CompletableFuture<ConcurrencyLimiter.Permit> permitFuture = limiter.acquire(remainingRepositories.get(0));
+            if (executor == null || permitFuture.isDone()) {
+                // Sequential downloads wait on the current thread
+                attempt(permitFuture.join());
+                return;
+            }
+
+            permitFuture.thenAccept(permit -> {
+                try {
+                    executor.execute(() -> attempt(permit));
+                } catch (Throwable t) {
+                    permit.close();
+                    future.completeExceptionally(t);
+                }
+            });
+        }
+
+        private void attempt(@Nullable ConcurrencyLimiter.Permit permit) {
+            if (remainingRepositories.get(0) instanceof BundleRepository) {
+                attemptBundle(permit);
+                return;
+            }
+
+            boolean success;
+            try {
+                success = tryNextRepository(permit);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return;
+            } finally {
+                if (permit != null) {
+                    permit.close();
+                }
+            }
+            attempted(success);
+        }
+
+        private void attempted(boolean success) {
+            if (success) {
+                try {
+                    linkStoredFile();
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                    return;
+                }
+                future.complete(true);
+            } else if (!retryRepositories.isEmpty()) {
+                // Retry before moving on to the next repository
+                remainingRepositories.addAll(0, retryRepositories);
+                retryRepositories.clear();
+                schedule(this::next, retryDelay);
+            } else {
+                next();
+            }
+        }
+
+        /**
+         * Runs the task after the delay on the executor, sequential downloads wait on the current thread.
+         */
+        private void schedule(Runnable task, long delay) {
+            if (executor == null) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                task.run();
+                return;
+            }
+
+            try {
+                DownloadThreads.SCHEDULER.schedule(() -> {
+                    try {
+                        executor.execute(task);
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        private boolean tryNextRepository(@Nullable ConcurrencyLimiter.Permit permit) throws IOException {
+            attemptStart = System.nanoTime();
+            if (remainingRepositories.get(0) instanceof LocalCacheRepository) {
+                LocalCacheRepository repository = (LocalCacheRepository) remainingRepositories.remove(0);
+                try {
+                    copyFromLocalRepository(repository);
+                    return true;
+                } catch (Exception e) {
+                    repositoryFailed(repository, e);
+                    return false;
+                }
+            }
+
+            Path downloadPath = resume ? getPartialPath(storagePath) : getTemporaryPath(storagePath);
+            HedgedRequest.Result result = null;
+            try {
+                digest.reset();
+
+                long offset = 0;
+                if (resume && Files.exists(downloadPath)) {
+                    // Restore the digest state from the bytes already on disk
+                    offset = Files.size(downloadPath);
+                    updateDigest(dependency, downloadPath, digest, false, statistics);
+                }
+
+                result = openResponse(dependency, remainingRepositories, offset, repositoryFailed, permit);
+                if (result == null) {
+                    // The tried repositories failed to respond
+                    return false;
+                }
+                Duration connectTime = Duration.ofNanos(System.nanoTime() - attemptStart);
+                Repository connected = result.repository;
+                notifyListeners(listener -> listener.repositoryConnected(dependency, connected, connectTime));
+
+                long transferStart = System.nanoTime();
+                long kept;
+                try (DownloadResponse response = result.response) {
+                    kept = downloadFromRepository(dependency, result.repository, response, downloadPath, digest, offset, progress, statistics);
+                }
+                long transferTime = System.nanoTime() - transferStart;
+
+                String hash = HashUtil.getHash(digest);
+                String dependencyHash = dependency.getHash();
+                if (!hash.equals(dependencyHash)) {
+                    // Never resume from a file that doesn't match
+                    Files.deleteIfExists(downloadPath);
+                    throw new SecurityException("Failed to verify file hash: " + hash + " should've been: " + dependencyHash);
+                }
+
+                // The repository may have sent the whole file instead of the remaining bytes
+                long bytes = Files.size(downloadPath) - kept;
+                publish(downloadPath, storagePath);
+
+                // Success
+                selector.recordSuccess(result.repository, dependency, result.responseTime, bytes, transferTime);
+                repositorySucceeded(result.repository, bytes);
+                if (missingCache != null) {
+                    missingCache.recordFound(result.repository, dependency);
+                }
+                return true;
+            } catch (Exception e) {
+                if (!resume) {
+                    Files.deleteIfExists(downloadPath);
+                }
+                if (result != null) {
+                    repositoryFailed(result.repository, e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+                return false;
+            }
+        }
+
+        private void repositorySucceeded(Repository repository, long bytes) {
+            statistics.downloaded(repository, bytes);
+            Duration time = Duration.ofNanos(System.nanoTime() - attemptStart);
+            notifyListeners(listener -> listener.repositoryRequest(dependency, repository, null, bytes, time));
+        }
+
+        private void repositoryFailed(Repository repository, Throwable throwable) {
+            failure.addSuppressed(throwable);
+            selector.recordFailure(repository, dependency, throwable);
+            statistics.failed(repository);
+            Duration time = Duration.ofNanos(System.nanoTime() - attemptStart);
+            notifyListeners(listener -> listener.repositoryRequest(dependency, repository, throwable, 0, time));
+            if (missingCache != null && MissingArtifactCache.isNotFound(throwable)) {
+                missingCache.recordMissing(repository, dependency);
+            }
+
+            int attempt = attempts.merge(repository, 1, Integer::sum);
+            long delay = retryPolicy.getRetryDelay(attempt, throwable);
+            if (delay >= 0) {
+                if (retryRepositories.isEmpty()) {
+                    retryDelay = 0;
+                }
+                retryRepositories.add(repository);
+                retryDelay = Math.max(retryDelay, delay);
+            }
+        }
+    }
+
     @FunctionalInterface
     private interface Step<T> {
 
@@ -605,6 +2267,15 @@ public class DependencyManager {
         boolean run(T t) throws Throwable;
     }
 
+    @FunctionalInterface
+    private interface AsyncStep<T> {
+
+        /**
+         * @return a future completing with {@code true} if the step was performed, {@code false} if skipped
+         */
+        CompletableFuture<Boolean> run(T t) throws Throwable;
+    }
+
     private static class JarRelocatorHelper {
 
         private final Constructor<?> relocatorConstructor;
@@ -0,0 +1,443 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * A snapshot of where a {@link DependencyManager} spent its time, for figuring out what makes loading dependencies slow.
+ * Times are wall clock times, dependencies processed concurrently will have overlapping times.
+ *
+ * @see DependencyManager#getStats()
+ * @see ApplicationDependencyManager#getStats()
+ */
+@SuppressWarnings("unused") // API
+public class DependencyManagerStats {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long snapshotTime;
+    private final long[] phaseStart;
+    private final long[] phaseEnd;
+    private final boolean[] phaseStarted;
+    private final boolean[] phaseComplete;
+    private final Map<Dependency, DependencyStats> dependencies;
+    private final Map<String, RepositoryStats> repositories;
+
+    DependencyManagerStats(
+            long snapshotTime,
+            long[] phaseStart,
+            long[] phaseEnd,
+            boolean[] phaseStarted,
+            boolean[] phaseComplete,
+            Map<Dependency, DependencyStats> dependencies,
+            Map<String, RepositoryStats> repositories
+    ) {
+        this.snapshotTime = snapshotTime;
+        this.phaseStart = phaseStart;
+        this.phaseEnd = phaseEnd;
+        this.phaseStarted = phaseStarted;
+        this.phaseComplete = phaseComplete;
+        this.dependencies = Collections.unmodifiableMap(dependencies);
+        this.repositories = Collections.unmodifiableMap(repositories);
+    }
+
+    /**
+     * Combines the statistics of multiple {@link DependencyManager}s, phases span from the earliest start to the latest end.
+     */
+    static DependencyManagerStats combine(Collection<DependencyManagerStats> stats) {
+        long snapshotTime = System.nanoTime();
+        long[] phaseStart = new long[PHASES.length];
+        long[] phaseEnd = new long[PHASES.length];
+        boolean[] phaseStarted = new boolean[PHASES.length];
+        boolean[] phaseComplete = new boolean[PHASES.length];
+        Map<Dependency, DependencyStats> dependencies = new LinkedHashMap<>();
+        Map<String, RepositoryStats> repositories = new LinkedHashMap<>();
+
+        for (DependencyManagerStats stat : stats) {
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                if (!stat.phaseStarted[phase]) {
+                    continue;
+                }
+                if (!phaseStarted[phase]) {
+                    phaseStarted[phase] = true;
+                    phaseComplete[phase] = stat.phaseComplete[phase];
+                    phaseStart[phase] = stat.phaseStart[phase];
+                    phaseEnd[phase] = stat.phaseEnd[phase];
+                    continue;
+                }
+                phaseComplete[phase] &= stat.phaseComplete[phase];
+                if (stat.phaseStart[phase] - phaseStart[phase] < 0) {
+                    phaseStart[phase] = stat.phaseStart[phase];
+                }
+                if (stat.phaseEnd[phase] - phaseEnd[phase] > 0) {
+                    phaseEnd[phase] = stat.phaseEnd[phase];
+                }
+            }
+
+            for (DependencyStats dependency : stat.dependencies.values()) {
+                dependencies.putIfAbsent(dependency.getDependency(), dependency);
+            }
+            for (RepositoryStats repository : stat.repositories.values()) {
+                repositories.merge(repository.getHost(), repository, RepositoryStats::add);
+            }
+        }
+        return new DependencyManagerStats(snapshotTime, phaseStart, phaseEnd, phaseStarted, phaseComplete, dependencies, repositories);
+    }
+
+    /**
+     * Gets the wall time of a phase, from the first dependency starting until the last one finished.
+     * @param phase the phase
+     * @return the time the phase took (or has taken so far if it is still running), or {@code null} if it hasn't been started
+     */
+    @Nullable
+    public Duration getTime(@NotNull Phase phase) {
+        int index = phase.ordinal();
+        if (!phaseStarted[index]) {
+            return null;
+        }
+        long end = phaseComplete[index] ? phaseEnd[index] : snapshotTime;
+        return Duration.ofNanos(end - phaseStart[index]);
+    }
+
+    /**
+     * If every dependency has finished (successfully or not) the provided phase.
+     * @param phase the phase
+     * @return {@code true} if the phase is complete
+     */
+    public boolean isComplete(@NotNull Phase phase) {
+        return phaseComplete[phase.ordinal()];
+    }
+
+    /**
+     * The amount of bytes downloaded (or copied from local repositories) in total.
+     * @return the amount of bytes
+     */
+    public long getBytesDownloaded() {
+        long bytes = 0;
+        for (DependencyStats dependency : dependencies.values()) {
+            bytes += dependency.getBytesDownloaded();
+        }
+        return bytes;
+    }
+
+    /**
+     * The amount of dependencies that were already downloaded.
+     * @return the amount of cache hits
+     */
+    public int getCacheHits() {
+        int hits = 0;
+        for (DependencyStats dependency : dependencies.values()) {
+            if (dependency.isCacheHit()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * The amount of dependencies that had to be downloaded.
+     * @return the amount of cache misses
+     */
+    public int getCacheMisses() {
+        int misses = 0;
+        for (DependencyStats dependency : dependencies.values()) {
+            if (dependency.isCacheMiss()) {
+                misses++;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * The time spent calculating the hashes of files, summed over all dependencies.
+     * @return the total hashing time
+     */
+    @NotNull
+    public Duration getHashTime() {
+        Duration time = Duration.ZERO;
+        for (DependencyStats dependency : dependencies.values()) {
+            time = time.plus(dependency.getHashTime());
+        }
+        return time;
+    }
+
+    /**
+     * The time spent relocating dependencies, summed over all dependencies.
+     * @return the total relocation time
+     */
+    @NotNull
+    public Duration getRelocationTime() {
+        Duration time = Duration.ZERO;
+        for (DependencyStats dependency : dependencies.values()) {
+            Duration relocation = dependency.getTime(Phase.RELOCATE);
+            if (relocation != null) {
+                time = time.plus(relocation);
+            }
+        }
+        return time;
+    }
+
+    /**
+     * The amount of requests made to repositories, including failed ones.
+     * @return the amount of attempts
+     */
+    public int getRepositoryAttempts() {
+        int attempts = 0;
+        for (RepositoryStats repository : repositories.values()) {
+            attempts += repository.getAttempts();
+        }
+        return attempts;
+    }
+
+    /**
+     * The amount of requests made to repositories that failed.
+     * @return the amount of failures
+     */
+    public int getRepositoryFailures() {
+        int failures = 0;
+        for (RepositoryStats repository : repositories.values()) {
+            failures += repository.getFailures();
+        }
+        return failures;
+    }
+
+    /**
+     * Statistics for each dependency that has been started on, in the order of the dependencies.
+     * @return the statistics by dependency
+     */
+    @NotNull
+    public Map<Dependency, DependencyStats> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Statistics for each repository that was tried, by {@link dev.vankka.dependencydownload.repository.Repository#getHost()}.
+     * @return the statistics by repository host
+     */
+    @NotNull
+    public Map<String, RepositoryStats> getRepositories() {
+        return repositories;
+    }
+
+    @Override
+    public String toString() {
+        return "DependencyManagerStats{"
+                + "download=" + getTime(Phase.DOWNLOAD)
+                + ", relocate=" + getTime(Phase.RELOCATE)
+                + ", load=" + getTime(Phase.LOAD)
+                + ", bytesDownloaded=" + getBytesDownloaded()
+                + ", cacheHits=" + getCacheHits()
+                + ", cacheMisses=" + getCacheMisses()
+                + ", hashTime=" + getHashTime()
+                + ", repositoryAttempts=" + getRepositoryAttempts()
+                + ", repositoryFailures=" + getRepositoryFailures()
+                + '}';
+    }
+
+    /**
+     * The phases a {@link DependencyManager} goes through.
+     */
+    public enum Phase {
+        DOWNLOAD,
+        RELOCATE,
+        LOAD
+    }
+
+    /**
+     * Statistics for a single dependency.
+     */
+    public static class DependencyStats {
+
+        private final Dependency dependency;
+        private final Duration[] times;
+        private final Boolean cacheHit;
+        private final long bytesDownloaded;
+        private final Duration hashTime;
+        private final String repository;
+
+        DependencyStats(
+                Dependency dependency,
+                Duration[] times,
+                @Nullable Boolean cacheHit,
+                long bytesDownloaded,
+                Duration hashTime,
+                @Nullable String repository
+        ) {
+            this.dependency = dependency;
+            this.times = times;
+            this.cacheHit = cacheHit;
+            this.bytesDownloaded = bytesDownloaded;
+            this.hashTime = hashTime;
+            this.repository = repository;
+        }
+
+        /**
+         * The dependency.
+         * @return the dependency
+         */
+        @NotNull
+        public Dependency getDependency() {
+            return dependency;
+        }
+
+        /**
+         * Gets the time this dependency spent in a phase.
+         * @param phase the phase
+         * @return the time the phase took (or has taken so far), or {@code null} if this dependency hasn't started the phase
+         */
+        @Nullable
+        public Duration getTime(@NotNull Phase phase) {
+            return times[phase.ordinal()];
+        }
+
+        /**
+         * If this dependency was already downloaded.
+         * @return {@code true} if the existing file was used
+         */
+        public boolean isCacheHit() {
+            return cacheHit != null && cacheHit;
+        }
+
+        /**
+         * If this dependency had to be downloaded.
+         * @return {@code true} if the dependency was not downloaded before
+         */
+        public boolean isCacheMiss() {
+            return cacheHit != null && !cacheHit;
+        }
+
+        /**
+         * The amount of bytes downloaded (or copied from a local repository) for this dependency.
+         * @return the amount of bytes
+         */
+        public long getBytesDownloaded() {
+            return bytesDownloaded;
+        }
+
+        /**
+         * The time spent calculating hashes of files for this dependency.
+         * @return the hashing time
+         */
+        @NotNull
+        public Duration getHashTime() {
+            return hashTime;
+        }
+
+        /**
+         * The repository this dependency was downloaded from.
+         * @return the {@link dev.vankka.dependencydownload.repository.Repository#getHost() host} of the repository,
+         * or {@code null} if it hasn't been downloaded
+         */
+        @Nullable
+        public String getRepository() {
+            return repository;
+        }
+
+        @Override
+        public String toString() {
+            return "DependencyStats{"
+                    + "dependency=" + dependency.getGAV()
+                    + ", download=" + getTime(Phase.DOWNLOAD)
+                    + ", relocate=" + getTime(Phase.RELOCATE)
+                    + ", load=" + getTime(Phase.LOAD)
+                    + ", cacheHit=" + cacheHit
+                    + ", bytesDownloaded=" + bytesDownloaded
+                    + ", hashTime=" + hashTime
+                    + ", repository=" + repository
+                    + '}';
+        }
+    }
+
+    /**
+     * Statistics for a single repository.
+     */
+    public static class RepositoryStats {
+
+        private final String host;
+        private final int attempts;
+        private final int failures;
+        private final long bytesDownloaded;
+
+        RepositoryStats(String host, int attempts, int failures, long bytesDownloaded) {
+            this.host = host;
+            this.attempts = attempts;
+            this.failures = failures;
+            this.bytesDownloaded = bytesDownloaded;
+        }
+
+        private RepositoryStats add(RepositoryStats other) {
+            return new RepositoryStats(host, attempts + other.attempts, failures + other.failures, bytesDownloaded + other.bytesDownloaded);
+        }
+
+        /**
+         * The host of the repository.
+         * @return the {@link dev.vankka.dependencydownload.repository.Repository#getHost() host}
+         */
+        @NotNull
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * The amount of requests made to this repository, including failed ones.
+         * @return the amount of attempts
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * The amount of requests to this repository that failed.
+         * @return the amount of failures
+         */
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * The amount of bytes downloaded from this repository.
+         * @return the amount of bytes
+         */
+        public long getBytesDownloaded() {
+            return bytesDownloaded;
+        }
+
+        @Override
+        public String toString() {
+            return "RepositoryStats{"
+                    + "host=" + host
+                    + ", attempts=" + attempts
+                    + ", failures=" + failures
+                    + ", bytesDownloaded=" + bytesDownloaded
+                    + '}';
+        }
+    }
+}
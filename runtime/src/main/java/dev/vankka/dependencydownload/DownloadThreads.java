@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daemon threads for the additional requests made during a single dependency's download (segments, hedged requests).
+ * These are not run on the caller's executor, as the download waits for them.
+ * Replaced in {@code META-INF/versions/21}.
+ */
+final class DownloadThreads {
+
+    static final ExecutorService EXECUTOR;
+
+    /**
+     * Schedules retries, the retries themselves are submitted back to the caller's executor.
+     */
+    static final ScheduledExecutorService SCHEDULER;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger(0);
+        EXECUTOR = new ThreadPoolExecutor(
+                0,
+                Integer.MAX_VALUE,
+                30L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "DependencyDownload Worker #" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "DependencyDownload Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setKeepAliveTime(30L, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        SCHEDULER = scheduler;
+    }
+
+    private DownloadThreads() {}
+}
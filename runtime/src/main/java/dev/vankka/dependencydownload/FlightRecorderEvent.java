@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Java Flight Recorder event for one step of a single dependency, started by {@link FlightRecorderEvents}.
+ */
+interface FlightRecorderEvent {
+
+    /**
+     * The event used when Java Flight Recorder isn't available or isn't recording the event.
+     */
+    FlightRecorderEvent DISABLED = (outcome, repository, bytes) -> {};
+
+    String VERIFIED = "verified";
+    String MISMATCH = "mismatch";
+    String PARTIAL = "partial";
+
+    /**
+     * Ends and commits the event.
+     * @param outcome the outcome of the step, the lowercase name of a {@link dev.vankka.dependencydownload.listener.DependencyListener.Outcome} for phases
+     * @param repository the host of the repository involved, if any
+     * @param bytes the amount of bytes involved, or {@code -1} if not applicable
+     */
+    void end(String outcome, @Nullable String repository, long bytes);
+}
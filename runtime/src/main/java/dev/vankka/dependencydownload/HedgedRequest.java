@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Races the same request against multiple repositories, starting the next repository when the running requests are too slow.
+ */
+final class HedgedRequest {
+
+    private HedgedRequest() {}
+
+    /**
+     * Opens a response from the first repository, starting the same request against the next repository
+     * whenever the running requests haven't responded within the delay or have all failed.
+     * Once a repository responds, the requests to the other repositories are cancelled and their responses closed.
+     *
+     * @param repositories the repositories to try, in order. Repositories that responded or failed are removed from the list
+     * @param delayNanos the delay before starting the next repository
+     * @param opener opens the response for a repository
+     * @param failureConsumer receives the failure for every repository that failed, requests that were cancelled are not included
+     * @return the first response, or {@code null} if all repositories failed
+     * @throws InterruptedIOException if the current thread is interrupted while waiting
+     */
+    @Nullable
+    static Result open(
+            List<Repository> repositories,
+            long delayNanos,
+            Opener opener,
+            BiConsumer<Repository, Throwable> failureConsumer
+    ) throws InterruptedIOException {
+        List<Repository> candidates = new ArrayList<>(repositories);
+        BlockingQueue<Attempt> completed = new LinkedBlockingQueue<>();
+        Object lock = new Object();
+        boolean[] finished = new boolean[1];
+        List<Attempt> running = new ArrayList<>();
+
+        int next = 0;
+        try {
+            running.add(new Attempt(candidates.get(next++), opener, completed, lock, finished).start());
+            while (!running.isEmpty()) {
+                Attempt attempt = next < candidates.size()
+                                  ? completed.poll(delayNanos, TimeUnit.NANOSECONDS)
+                                  : completed.take();
+                if (attempt == null) {
+                    // No response within the delay, hedge with the next repository
+                    running.add(new Attempt(candidates.get(next++), opener, completed, lock, finished).start());
+                    continue;
+                }
+
+                running.remove(attempt);
+                repositories.remove(attempt.repository);
+                if (attempt.failure == null) {
+                    return new Result(attempt.repository, attempt.response, attempt.responseTime);
+                }
+
+                failureConsumer.accept(attempt.repository, attempt.failure);
+                if (running.isEmpty() && next < candidates.size()) {
+                    running.add(new Attempt(candidates.get(next++), opener, completed, lock, finished).start());
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for repositories to respond");
+        } finally {
+            synchronized (lock) {
+                finished[0] = true;
+            }
+            for (Attempt attempt : running) {
+                attempt.future.cancel(true);
+            }
+            Attempt attempt;
+            while ((attempt = completed.poll()) != null) {
+                attempt.closeResponse();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Opener {
+        DownloadResponse open(Repository repository) throws IOException;
+    }
+
+    static final class Result {
+
+        final Repository repository;
+        final DownloadResponse response;
+        final long responseTime;
+
+        Result(Repository repository, DownloadResponse response, long responseTime) {
+            this.repository = repository;
+            this.response = response;
+            this.responseTime = responseTime;
+        }
+    }
+
+    private static final class Attempt implements Runnable {
+
+        private final Repository repository;
+        private final Opener opener;
+        private final BlockingQueue<Attempt> completed;
+        private final Object lock;
+        private final boolean[] finished;
+
+        private Future<?> future;
+        private DownloadResponse response;
+        private long responseTime;
+        private Throwable failure;
+
+        private Attempt(Repository repository, Opener opener, BlockingQueue<Attempt> completed, Object lock, boolean[] finished) {
+            this.repository = repository;
+            this.opener = opener;
+            this.completed = completed;
+            this.lock = lock;
+            this.finished = finished;
+        }
+
+        private Attempt start() {
+            this.future = DownloadThreads.EXECUTOR.submit(this);
+            return this;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                response = opener.open(repository);
+                responseTime = System.nanoTime() - start;
+            } catch (Throwable t) {
+                failure = t;
+            }
+
+            synchronized (lock) {
+                if (!finished[0]) {
+                    completed.add(this);
+                    return;
+                }
+            }
+
+            // Lost the race
+            closeResponse();
+        }
+
+        private void closeResponse() {
+            if (response == null) {
+                return;
+            }
+            try {
+                response.close();
+            } catch (IOException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.download.ConcurrencyLimiter;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A {@link DownloadResponse} holding a {@link ConcurrencyLimiter.Permit}, which is released when the response is closed.
+ */
+final class LimitedResponse implements DownloadResponse {
+
+    private final DownloadResponse response;
+    private final ConcurrencyLimiter.Permit permit;
+
+    LimitedResponse(DownloadResponse response, ConcurrencyLimiter.Permit permit) {
+        this.response = response;
+        this.permit = permit;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return response.getResponseCode();
+    }
+
+    @Override
+    public long getContentLength() {
+        return response.getContentLength();
+    }
+
+    @Override
+    public @Nullable String getHeader(@NotNull String name) {
+        return response.getHeader(name);
+    }
+
+    @Override
+    public boolean isPartial() {
+        return response.isPartial();
+    }
+
+    @Override
+    public long getRangeStart() {
+        return response.getRangeStart();
+    }
+
+    @Override
+    public @NotNull InputStream getInputStream() throws IOException {
+        return response.getInputStream();
+    }
+
+    @Override
+    public @NotNull ReadableByteChannel getChannel() throws IOException {
+        return response.getChannel();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            response.close();
+        } finally {
+            permit.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.DownloadProgress;
+import dev.vankka.dependencydownload.logger.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the bytes transferred during a download call and reports {@link DownloadProgress} to the {@link Logger}
+ * at most once per interval. Between reports transferring bytes only updates a few counters.
+ */
+final class ProgressTracker {
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final int dependencyCount;
+    private final long startTime = System.nanoTime();
+
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong totalContentLength = new AtomicLong();
+    private final AtomicLong transferredBytes = new AtomicLong();
+    private final AtomicInteger knownLengths = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicLong nextReport;
+
+    private long lastReportTime = startTime;
+    private long lastReportBytes = 0;
+
+    /**
+     * @param interval the minimum time between reports, or {@code null} to never report
+     */
+    ProgressTracker(Logger logger, @Nullable Duration interval, int dependencyCount) {
+        this.logger = logger;
+        this.intervalNanos = interval != null ? interval.toNanos() : -1;
+        this.dependencyCount = dependencyCount;
+        this.nextReport = new AtomicLong(startTime + Math.max(intervalNanos, 0));
+    }
+
+    /**
+     * Starts tracking a dependency that is about to be downloaded.
+     */
+    Transfer begin(Dependency dependency) {
+        started.incrementAndGet();
+        return new Transfer(dependency);
+    }
+
+    /**
+     * Records that a dependency didn't need to be downloaded.
+     */
+    void skip() {
+        skipped.incrementAndGet();
+    }
+
+    private void maybeReport(Transfer transfer) {
+        if (intervalNanos < 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long next = nextReport.get();
+        if (now - next < 0 || !nextReport.compareAndSet(next, now + intervalNanos)) {
+            return;
+        }
+        report(transfer, now);
+    }
+
+    private synchronized void report(Transfer transfer, long now) {
+        long transferred = transferredBytes.get();
+        double throughput = perSecond(transferred - lastReportBytes, now - lastReportTime);
+        double averageThroughput = perSecond(transferred, now - startTime);
+        lastReportTime = now;
+        lastReportBytes = transferred;
+
+        long bytes = totalBytes.get();
+        long contentLength = totalContentLength.get();
+        int known = knownLengths.get();
+        int total = dependencyCount - skipped.get();
+
+        Duration estimate = null;
+        if (known > 0 && averageThroughput > 0) {
+            // Assume the dependencies without a known size are of average size
+            long expected = contentLength + (contentLength / known) * Math.max(0, total - known);
+            long remaining = Math.max(0, expected - bytes);
+            estimate = Duration.ofNanos((long) (remaining / averageThroughput * TimeUnit.SECONDS.toNanos(1)));
+        }
+
+        logger.downloadProgress(new DownloadProgress(
+                transfer.dependency,
+                transfer.bytes.get(),
+                transfer.contentLength,
+                bytes,
+                contentLength,
+                started.get(),
+                total,
+                throughput,
+                averageThroughput,
+                estimate
+        ));
+    }
+
+    private static double perSecond(long bytes, long nanos) {
+        return nanos > 0 ? bytes * (double) TimeUnit.SECONDS.toNanos(1) / nanos : 0;
+    }
+
+    /**
+     * The progress of a single dependency, segments of the same dependency may transfer concurrently.
+     */
+    final class Transfer {
+
+        private final Dependency dependency;
+        private final AtomicLong bytes = new AtomicLong();
+        private volatile long contentLength = -1;
+
+        private Transfer(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        /**
+         * (Re)starts the transfer, replacing the progress of a previous attempt.
+         * @param contentLength the size of the dependency or {@code -1} if unknown
+         * @param offset the bytes that were already downloaded
+         */
+        synchronized void start(long contentLength, long offset) {
+            long previousBytes = bytes.getAndSet(offset);
+            totalBytes.addAndGet(offset - previousBytes);
+
+            long previousLength = this.contentLength;
+            if (previousLength >= 0) {
+                totalContentLength.addAndGet(-previousLength);
+                knownLengths.decrementAndGet();
+            }
+            this.contentLength = contentLength;
+            if (contentLength >= 0) {
+                totalContentLength.addAndGet(contentLength);
+                knownLengths.incrementAndGet();
+            }
+        }
+
+        /**
+         * Records bytes that were transferred, called from the read loop.
+         */
+        void transferred(long amount) {
+            bytes.addAndGet(amount);
+            totalBytes.addAndGet(amount);
+            transferredBytes.addAndGet(amount);
+            maybeReport(this);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.BandwidthLimiter;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.repository.Repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Downloads byte ranges of a single dependency in parallel, into a preallocated file.
+ */
+final class SegmentedDownload {
+
+    private SegmentedDownload() {}
+
+    /**
+     * If the response is eligible for a segmented download.
+     */
+    static boolean isSupported(DownloadResponse response, int segments, long threshold) {
+        if (segments <= 1 || response.getResponseCode() != 200) {
+            return false;
+        }
+
+        long contentLength = response.getContentLength();
+        return contentLength > 0
+                && contentLength >= threshold
+                && "bytes".equalsIgnoreCase(response.getHeader("Accept-Ranges"));
+    }
+
+    /**
+     * Downloads the file in segments, the first segment is read from the provided full response.
+     *
+     * @return {@code false} if the repository did not respond to the range requests with partial responses
+     */
+    static boolean download(
+            DownloadEngine engine,
+            Repository repository,
+            Dependency dependency,
+            DownloadResponse response,
+            Path path,
+            int segments,
+            BandwidthLimiter limiter,
+            ProgressTracker.Transfer progress
+    ) throws IOException {
+        long length = response.getContentLength();
+        long segmentLength = (length + segments - 1) / segments;
+
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        try (FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            // Preallocate
+            channel.write(ByteBuffer.wrap(new byte[1]), length - 1);
+
+            List<Future<?>> futures = new ArrayList<>(segments - 1);
+            for (long start = segmentLength; start < length; start += segmentLength) {
+                long segmentStart = start;
+                long segmentEnd = Math.min(length, start + segmentLength) - 1;
+                futures.add(DownloadThreads.EXECUTOR.submit(() -> {
+                    try (DownloadResponse segmentResponse = engine.open(repository, dependency, segmentStart, segmentEnd)) {
+                        if (!segmentResponse.isPartial() || segmentResponse.getRangeStart() != segmentStart) {
+                            throw new RangeNotSupportedException();
+                        }
+                        copy(repository, segmentResponse.getChannel(), channel, segmentStart, segmentEnd - segmentStart + 1, limiter, progress, aborted);
+                    } catch (Throwable t) {
+                        aborted.set(true);
+                        throw t;
+                    }
+                    return null;
+                }));
+            }
+
+            IOException failure = null;
+            try {
+                copy(repository, response.getChannel(), channel, 0, Math.min(segmentLength, length), limiter, progress, aborted);
+            } catch (IOException e) {
+                // Might have been aborted by another segment, which takes priority
+                aborted.set(true);
+                failure = e;
+            }
+
+            boolean rangeSupported;
+            try {
+                rangeSupported = awaitSegments(futures);
+            } catch (IOException e) {
+                if (failure != null) {
+                    failure.addSuppressed(e);
+                    throw failure;
+                }
+                throw e;
+            }
+            if (!rangeSupported) {
+                return false;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return true;
+        }
+    }
+
+    private static boolean awaitSegments(List<Future<?>> futures) throws IOException {
+        IOException failure = null;
+        boolean rangeSupported = true;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for segments", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RangeNotSupportedException) {
+                    rangeSupported = false;
+                    continue;
+                }
+                if (failure == null) {
+                    failure = new IOException("Failed to download segment", cause);
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (!rangeSupported) {
+            return false;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return true;
+    }
+
+    private static void copy(
+            Repository repository,
+            ReadableByteChannel inputChannel,
+            FileChannel channel,
+            long position,
+            long length,
+            BandwidthLimiter limiter,
+            ProgressTracker.Transfer progress,
+            AtomicBoolean aborted
+    ) throws IOException {
+        ByteBuffer buffer = BufferPool.acquire(repository.getBufferSize());
+        try {
+            long remaining = length;
+            while (remaining > 0) {
+                if (aborted.get()) {
+                    throw new IOException("Segmented download aborted");
+                }
+
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), remaining));
+                int read = inputChannel.read(buffer);
+                if (read == -1) {
+                    throw new IOException("Segment ended " + remaining + " bytes early");
+                }
+                if (limiter != null) {
+                    limiter.acquire(repository, read);
+                }
+                progress.transferred(read);
+
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                remaining -= read;
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    private static class RangeNotSupportedException extends IOException {
+
+        private RangeNotSupportedException() {
+            super("Repository did not respond with a partial response");
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.DependencyManagerStats.Phase;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.repository.Repository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the timings and counters of a {@link DependencyManager} for {@link DependencyManagerStats} snapshots.
+ * Recording only updates counters, the snapshot is put together when requested.
+ */
+final class StatsRecorder {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final List<Dependency> dependencies;
+    private final long[] phaseStart = new long[PHASES.length];
+    private final long[] phaseEnd = new long[PHASES.length];
+    private final boolean[] phaseStarted = new boolean[PHASES.length];
+    private final boolean[] phaseComplete = new boolean[PHASES.length];
+    private final Map<Dependency, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, RepositoryCounters> repositories = new ConcurrentHashMap<>();
+    private Runnable loadedCallback;
+
+    StatsRecorder(List<Dependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    synchronized void startPhase(Phase phase) {
+        phaseStart[phase.ordinal()] = System.nanoTime();
+        phaseStarted[phase.ordinal()] = true;
+    }
+
+    /**
+     * Ends the phase once all the futures have completed, futures that were not started ({@code null}) are ignored.
+     */
+    void endPhase(Phase phase, CompletableFuture<?>[] futures) {
+        int started = 0;
+        while (started < futures.length && futures[started] != null) {
+            started++;
+        }
+
+        CompletableFuture<?>[] startedFutures = new CompletableFuture[started];
+        System.arraycopy(futures, 0, startedFutures, 0, started);
+        CompletableFuture.allOf(startedFutures).whenComplete((v, t) -> {
+            Runnable callback;
+            synchronized (this) {
+                phaseEnd[phase.ordinal()] = System.nanoTime();
+                phaseComplete[phase.ordinal()] = true;
+                callback = phase == Phase.LOAD ? loadedCallback : null;
+            }
+            if (callback != null) {
+                callback.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the callback once the load phase has completed, immediately if it already has.
+     */
+    void whenLoaded(Runnable callback) {
+        synchronized (this) {
+            if (!phaseComplete[Phase.LOAD.ordinal()]) {
+                loadedCallback = callback;
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    Entry get(Dependency dependency) {
+        return entries.computeIfAbsent(dependency, Entry::new);
+    }
+
+    private RepositoryCounters getCounters(Repository repository) {
+        return repositories.computeIfAbsent(repository.getHost(), key -> new RepositoryCounters());
+    }
+
+    synchronized DependencyManagerStats snapshot() {
+        long now = System.nanoTime();
+        Map<Dependency, DependencyManagerStats.DependencyStats> dependencyStats = new LinkedHashMap<>();
+        for (Dependency dependency : dependencies) {
+            Entry entry = entries.get(dependency);
+            if (entry != null) {
+                dependencyStats.put(dependency, entry.snapshot(now));
+            }
+        }
+
+        Map<String, DependencyManagerStats.RepositoryStats> repositoryStats = new LinkedHashMap<>();
+        for (Map.Entry<String, RepositoryCounters> entry : repositories.entrySet()) {
+            RepositoryCounters counters = entry.getValue();
+            repositoryStats.put(entry.getKey(), new DependencyManagerStats.RepositoryStats(
+                    entry.getKey(),
+                    counters.attempts.get(),
+                    counters.failures.get(),
+                    counters.bytes.get()
+            ));
+        }
+
+        return new DependencyManagerStats(
+                now,
+                phaseStart.clone(),
+                phaseEnd.clone(),
+                phaseStarted.clone(),
+                phaseComplete.clone(),
+                dependencyStats,
+                repositoryStats
+        );
+    }
+
+    private static final class RepositoryCounters {
+
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+    }
+
+    /**
+     * The counters for a single dependency.
+     */
+    final class Entry {
+
+        private final Dependency dependency;
+        private final long[] start = new long[PHASES.length];
+        private final long[] time = new long[PHASES.length];
+        private final boolean[] started = new boolean[PHASES.length];
+        private final boolean[] ended = new boolean[PHASES.length];
+        private final LongAdder hashNanos = new LongAdder();
+        private volatile Boolean cacheHit;
+        private volatile long bytes;
+        private volatile String repository;
+
+        private Entry(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        synchronized void start(Phase phase) {
+            start[phase.ordinal()] = System.nanoTime();
+            started[phase.ordinal()] = true;
+        }
+
+        /**
+         * @return the time spent in the phase in nanoseconds
+         */
+        synchronized long end(Phase phase) {
+            time[phase.ordinal()] = System.nanoTime() - start[phase.ordinal()];
+            ended[phase.ordinal()] = true;
+            return time[phase.ordinal()];
+        }
+
+        void cacheHit(boolean hit) {
+            cacheHit = hit;
+        }
+
+        void hashed(long nanos) {
+            hashNanos.add(nanos);
+        }
+
+        void downloaded(Repository repository, long bytes) {
+            this.bytes = bytes;
+            this.repository = repository.getHost();
+
+            RepositoryCounters counters = getCounters(repository);
+            counters.attempts.incrementAndGet();
+            counters.bytes.addAndGet(bytes);
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        String getRepository() {
+            return repository;
+        }
+
+        void failed(Repository repository) {
+            RepositoryCounters counters = getCounters(repository);
+            counters.attempts.incrementAndGet();
+            counters.failures.incrementAndGet();
+        }
+
+        private synchronized DependencyManagerStats.DependencyStats snapshot(long now) {
+            Duration[] times = new Duration[PHASES.length];
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                if (started[phase]) {
+                    times[phase] = Duration.ofNanos(ended[phase] ? time[phase] : now - start[phase]);
+                }
+            }
+            return new DependencyManagerStats.DependencyStats(
+                    dependency,
+                    times,
+                    cacheHit,
+                    bytes,
+                    Duration.ofNanos(hashNanos.sum()),
+                    repository
+            );
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket limiting how many bytes per second are downloaded, in total and optionally per {@link Repository#getHost()}.
+ * <p>
+ * The same instance can be set on any amount of {@link dev.vankka.dependencydownload.DependencyManager}s
+ * and {@link dev.vankka.dependencydownload.ApplicationDependencyManager}s, the limits apply to all of their downloads combined.
+ * Up to one second worth of bytes may be downloaded in a burst after a period of inactivity.
+ *
+ * @see dev.vankka.dependencydownload.DependencyManager#setBandwidthLimiter(BandwidthLimiter)
+ */
+@SuppressWarnings("unused") // API
+public class BandwidthLimiter {
+
+    private final Bucket globalBucket;
+    private final Map<String, Bucket> repositoryBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@link BandwidthLimiter}.
+     * @param bytesPerSecond the maximum amount of bytes downloaded per second in total, or {@code 0} for no global limit
+     */
+    public BandwidthLimiter(long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Bytes per second cannot be negative");
+        }
+        this.globalBucket = bytesPerSecond > 0 ? new Bucket(bytesPerSecond) : null;
+    }
+
+    /**
+     * Limits the bytes per second downloaded from the repository's host, in addition to the global limit.
+     * @param repository the repository
+     * @param bytesPerSecond the maximum amount of bytes downloaded per second from the repository's host, or {@code 0} to remove the limit
+     * @return this {@link BandwidthLimiter}
+     */
+    public BandwidthLimiter setRepositoryLimit(@NotNull Repository repository, long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Bytes per second cannot be negative");
+        }
+        if (bytesPerSecond == 0) {
+            repositoryBuckets.remove(repository.getHost());
+        } else {
+            repositoryBuckets.put(repository.getHost(), new Bucket(bytesPerSecond));
+        }
+        return this;
+    }
+
+    /**
+     * Takes bytes that were read from a repository out of the buckets,
+     * waiting until the buckets are no longer in debt if the limits were exceeded.
+     *
+     * @param repository the repository the bytes were read from
+     * @param bytes the amount of bytes read
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public void acquire(@NotNull Repository repository, int bytes) throws InterruptedIOException {
+        if (bytes <= 0) {
+            return;
+        }
+
+        long waitNanos = 0;
+        if (globalBucket != null) {
+            waitNanos = globalBucket.take(bytes);
+        }
+        Bucket repositoryBucket = repositoryBuckets.get(repository.getHost());
+        if (repositoryBucket != null) {
+            waitNanos = Math.max(waitNanos, repositoryBucket.take(bytes));
+        }
+        if (waitNanos <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while limiting bandwidth");
+        }
+    }
+
+    private static class Bucket {
+
+        private final double bytesPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(long bytesPerSecond) {
+            this.bytesPerNano = bytesPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+            this.capacity = bytesPerSecond;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * Takes the bytes out of the bucket, the bucket may go into debt which the caller pays off by waiting.
+         * @return the nanoseconds to wait before reading more
+         */
+        private synchronized long take(int bytes) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * bytesPerNano);
+            lastRefill = now;
+
+            tokens -= bytes;
+            if (tokens >= 0) {
+                return 0;
+            }
+            return (long) (-tokens / bytesPerNano);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits how many requests are in-flight to each {@link Repository#getHost()} at once.
+ * <p>
+ * Downloads that are over the limit are queued until a request to the same host finishes,
+ * without occupying a thread of the executor provided for downloading while they wait.
+ * The same instance can be set on any amount of {@link dev.vankka.dependencydownload.DependencyManager}s
+ * and {@link dev.vankka.dependencydownload.ApplicationDependencyManager}s, the limits apply to all of their downloads combined.
+ *
+ * @see dev.vankka.dependencydownload.DependencyManager#setConcurrencyLimiter(ConcurrencyLimiter)
+ */
+@SuppressWarnings("unused") // API
+public class ConcurrencyLimiter {
+
+    private final int maxRequestsPerHost;
+    private final Map<String, Integer> repositoryLimits = new ConcurrentHashMap<>();
+    private final Map<String, Host> hosts = new HashMap<>();
+
+    /**
+     * Creates a {@link ConcurrencyLimiter}.
+     * @param maxRequestsPerHost the maximum amount of in-flight requests to a single host
+     */
+    public ConcurrencyLimiter(int maxRequestsPerHost) {
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("At least one request per host must be allowed");
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * Sets a different limit for the repository's host.
+     * @param repository the repository
+     * @param maxRequests the maximum amount of in-flight requests to the repository's host
+     * @return this {@link ConcurrencyLimiter}
+     */
+    public ConcurrencyLimiter setRepositoryLimit(@NotNull Repository repository, int maxRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("At least one request per host must be allowed");
+        }
+        repositoryLimits.put(repository.getHost(), maxRequests);
+        return this;
+    }
+
+    /**
+     * Acquires a permit for a request to the repository's host, the future completes once there is room for the request.
+     * The thread that closes the previous permit completes the future, so dependent work should be passed to an executor.
+     * If the future is cancelled before it completes, the permit is passed on to the next request in line.
+     *
+     * @param repository the repository
+     * @return a future for the permit
+     */
+    @NotNull
+    public CompletableFuture<Permit> acquire(@NotNull Repository repository) {
+        String key = repository.getHost();
+        synchronized (this) {
+            Host host = hosts.computeIfAbsent(key, k -> new Host());
+            if (host.waiting.isEmpty() && host.inFlight < limit(key)) {
+                host.inFlight++;
+                return CompletableFuture.completedFuture(new Permit(this, key));
+            }
+
+            CompletableFuture<Permit> future = new CompletableFuture<>();
+            host.waiting.add(future);
+            return future;
+        }
+    }
+
+    /**
+     * Acquires a permit for a request to the repository's host, if there is room for the request right now.
+     * @param repository the repository
+     * @return the permit or {@code null} if the host is at its limit
+     */
+    @Nullable
+    public Permit tryAcquire(@NotNull Repository repository) {
+        String key = repository.getHost();
+        synchronized (this) {
+            Host host = hosts.computeIfAbsent(key, k -> new Host());
+            if (host.waiting.isEmpty() && host.inFlight < limit(key)) {
+                host.inFlight++;
+                return new Permit(this, key);
+            }
+            return null;
+        }
+    }
+
+    private int limit(String key) {
+        return repositoryLimits.getOrDefault(key, maxRequestsPerHost);
+    }
+
+    private void release(String key) {
+        while (true) {
+            CompletableFuture<Permit> next;
+            synchronized (this) {
+                Host host = hosts.get(key);
+                do {
+                    next = host.waiting.poll();
+                } while (next != null && next.isDone());
+
+                if (next == null) {
+                    if (--host.inFlight == 0) {
+                        hosts.remove(key);
+                    }
+                    return;
+                }
+            }
+
+            // Hand the permit over to the next request in line
+            if (next.complete(new Permit(this, key))) {
+                return;
+            }
+            // Cancelled in the meantime, try the one after it
+        }
+    }
+
+    /**
+     * A permit for one in-flight request, closing it makes room for the next request to the same host.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final ConcurrencyLimiter limiter;
+        private final String host;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(ConcurrencyLimiter limiter, String host) {
+            this.limiter = limiter;
+            this.host = host;
+        }
+
+        /**
+         * Releases this permit, permits can only be released once.
+         */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(host);
+            }
+        }
+    }
+
+    private static class Host {
+
+        private int inFlight = 0;
+        private final Queue<CompletableFuture<Permit>> waiting = new ArrayDeque<>();
+    }
+}
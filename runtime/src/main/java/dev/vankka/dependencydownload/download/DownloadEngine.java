@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * The transport used to fetch a {@link Dependency} from a {@link Repository}.
+ */
+public interface DownloadEngine {
+
+    /**
+     * The default engine, opens a new connection for every dependency with {@link Repository#openConnection(Dependency)}.
+     * @return the {@link java.net.URLConnection} based engine
+     */
+    @NotNull
+    static DownloadEngine urlConnection() {
+        return URLConnectionDownloadEngine.INSTANCE;
+    }
+
+    /**
+     * Creates a new engine that keeps one shared, multiplexed HTTP/2 {@code java.net.http.HttpClient} per repository host,
+     * so concurrent downloads from the same host share connections instead of doing a TLS handshake for every dependency.
+     * <p>
+     * The {@code HttpClient} requires Java 11, on older Java versions this returns {@link #urlConnection()} instead.
+     * Repositories that set their own {@code SSLSocketFactory} or {@code HostnameVerifier} on the connection
+     * are downloaded through that connection, as the {@code HttpClient} can't use them.
+     *
+     * @return a new HTTP/2 engine, the engine should be reused for all {@link dev.vankka.dependencydownload.DependencyManager}s
+     */
+    @NotNull
+    static DownloadEngine httpClient() {
+        return DownloadEngines.httpClient();
+    }
+
+    /**
+     * Opens the dependency from the given repository.
+     *
+     * @param repository the repository to download from
+     * @param dependency the dependency to download
+     * @return the response, which must be closed after the body has been read
+     * @throws IOException if opening the connection fails or the repository does not respond successfully
+     * @see #open(Repository, Dependency, long, long)
+     */
+    @NotNull
+    default DownloadResponse open(@NotNull Repository repository, @NotNull Dependency dependency) throws IOException {
+        return open(repository, dependency, 0, -1);
+    }
+
+    /**
+     * Opens a byte range of the dependency from the given repository.
+     * The repository may ignore the range and respond with the entire file instead, see {@link DownloadResponse#isPartial()}.
+     *
+     * @param repository the repository to download from
+     * @param dependency the dependency to download
+     * @param rangeStart the first byte to request, {@code 0} to start from the beginning of the file
+     * @param rangeEnd the last byte to request (inclusive), {@code -1} to request until the end of the file
+     * @return the response, which must be closed after the body has been read
+     * @throws IOException if opening the connection fails or the repository does not respond successfully
+     * @throws ResponseCodeException if the repository responded with an unsuccessful response code
+     */
+    @NotNull
+    DownloadResponse open(
+            @NotNull Repository repository,
+            @NotNull Dependency dependency,
+            long rangeStart,
+            long rangeEnd
+    ) throws IOException;
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * A snapshot of the progress of a {@link dev.vankka.dependencydownload.DependencyManager#download download} call,
+ * provided to {@link dev.vankka.dependencydownload.logger.Logger#downloadProgress(DownloadProgress)}.
+ */
+@SuppressWarnings("unused") // API
+public class DownloadProgress {
+
+    private final Dependency dependency;
+    private final long bytes;
+    private final long contentLength;
+    private final long totalBytes;
+    private final long totalContentLength;
+    private final int startedDependencies;
+    private final int totalDependencies;
+    private final double throughput;
+    private final double averageThroughput;
+    private final Duration estimatedTimeRemaining;
+
+    public DownloadProgress(
+            @NotNull Dependency dependency,
+            long bytes,
+            long contentLength,
+            long totalBytes,
+            long totalContentLength,
+            int startedDependencies,
+            int totalDependencies,
+            double throughput,
+            double averageThroughput,
+            @Nullable Duration estimatedTimeRemaining
+    ) {
+        this.dependency = dependency;
+        this.bytes = bytes;
+        this.contentLength = contentLength;
+        this.totalBytes = totalBytes;
+        this.totalContentLength = totalContentLength;
+        this.startedDependencies = startedDependencies;
+        this.totalDependencies = totalDependencies;
+        this.throughput = throughput;
+        this.averageThroughput = averageThroughput;
+        this.estimatedTimeRemaining = estimatedTimeRemaining;
+    }
+
+    /**
+     * The dependency that was being transferred when this update was made.
+     * @return the dependency
+     */
+    @NotNull
+    public Dependency getDependency() {
+        return dependency;
+    }
+
+    /**
+     * The bytes of {@link #getDependency()} that have been downloaded, including the bytes of a resumed download.
+     * @return the amount of bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * The size of {@link #getDependency()}.
+     * @return the size in bytes, or {@code -1} if the repository didn't provide a {@code Content-Length}
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * The bytes that have been downloaded for all dependencies.
+     * @return the amount of bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * The sum of the sizes of the dependencies that have started downloading and have a known size.
+     * @return the size in bytes
+     */
+    public long getTotalContentLength() {
+        return totalContentLength;
+    }
+
+    /**
+     * The amount of dependencies that have started downloading.
+     * @return the amount of dependencies
+     */
+    public int getStartedDependencies() {
+        return startedDependencies;
+    }
+
+    /**
+     * The amount of dependencies that may still need to be downloaded, dependencies that were already downloaded are not included.
+     * @return the amount of dependencies
+     */
+    public int getTotalDependencies() {
+        return totalDependencies;
+    }
+
+    /**
+     * The throughput since the previous update.
+     * @return bytes per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * The throughput since the download was started.
+     * @return bytes per second
+     */
+    public double getAverageThroughput() {
+        return averageThroughput;
+    }
+
+    /**
+     * The estimated time until all dependencies have been downloaded, based on the {@link #getAverageThroughput() average throughput}.
+     * The sizes of dependencies that haven't started downloading are assumed to be the average of the known sizes.
+     * @return the estimate, or {@code null} if there isn't enough information for an estimate yet
+     */
+    @Nullable
+    public Duration getEstimatedTimeRemaining() {
+        return estimatedTimeRemaining;
+    }
+}
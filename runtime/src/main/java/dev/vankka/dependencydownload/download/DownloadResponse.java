@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A successful response from a {@link DownloadEngine}.
+ */
+public interface DownloadResponse extends Closeable {
+
+    /**
+     * Gets the HTTP response code.
+     * @return the response code, or {@code -1} if the repository isn't using http(s)
+     */
+    int getResponseCode();
+
+    /**
+     * Gets the length of the response body.
+     * @return the amount of bytes in the body, or {@code -1} if not known
+     */
+    long getContentLength();
+
+    /**
+     * Gets the value of a response header.
+     * @param name the name of the header, case-insensitive
+     * @return the first value for the header, or {@code null} if not present
+     */
+    @Nullable
+    String getHeader(@NotNull String name);
+
+    /**
+     * If this response only contains the requested byte range, as opposed to the entire file.
+     * @return {@code true} if the response is partial
+     */
+    default boolean isPartial() {
+        return getResponseCode() == 206;
+    }
+
+    /**
+     * Gets the position of the first byte of the body in the entire file.
+     * @return the start of the {@code Content-Range}, {@code 0} if the response isn't partial or {@code -1} if the range is invalid
+     */
+    default long getRangeStart() {
+        if (!isPartial()) {
+            return 0;
+        }
+
+        // bytes <start>-<end>/<total>
+        String contentRange = getHeader("Content-Range");
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return -1;
+        }
+        int separator = contentRange.indexOf('-');
+        if (separator == -1) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentRange.substring(6, separator).trim());
+        } catch (NumberFormatException ignored) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the body of the response.
+     * @return the response body
+     * @throws IOException if getting the body fails
+     */
+    @NotNull
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * Gets the body of the response as a channel, download engines with a native channel should override this.
+     * @return the response body
+     * @throws IOException if getting the body fails
+     */
+    @NotNull
+    default ReadableByteChannel getChannel() throws IOException {
+        return Channels.newChannel(getInputStream());
+    }
+}
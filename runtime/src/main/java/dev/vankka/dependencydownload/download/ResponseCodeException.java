@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link DownloadEngine}s when a repository responds with an unsuccessful HTTP response code.
+ */
+public class ResponseCodeException extends IOException {
+
+    private final int responseCode;
+    private final String retryAfter;
+
+    /**
+     * Creates a {@link ResponseCodeException} for a response without a {@code Retry-After} header.
+     * @param responseCode the HTTP response code
+     * @param url the URL that was requested
+     */
+    public ResponseCodeException(int responseCode, String url) {
+        this(responseCode, url, null);
+    }
+
+    /**
+     * Creates a {@link ResponseCodeException}.
+     * @param responseCode the HTTP response code
+     * @param url the URL that was requested
+     * @param retryAfter the unparsed value of the {@code Retry-After} header, either a delay in seconds (e.g. {@code 120})
+     *                   or a HTTP date (e.g. {@code Wed, 21 Oct 2015 07:28:00 GMT}), or {@code null} if the header wasn't present
+     */
+    public ResponseCodeException(int responseCode, String url, @Nullable String retryAfter) {
+        super("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+        this.responseCode = responseCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the HTTP response code.
+     * @return the response code
+     */
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * Gets the value of the {@code Retry-After} header of the response.
+     * @return the delay in seconds or a HTTP date, or {@code null} if the header wasn't present
+     */
+    @Nullable
+    public String getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides if and when a failed download from a repository is tried again from the same repository,
+ * before moving on to the next repository.
+ * <p>
+ * The delay doubles after every attempt (starting from the initial backoff, up to the max backoff)
+ * and is randomized between half and the full delay, so that many downloads failing at once don't retry at once.
+ * A {@code Retry-After} header on 429 (Too Many Requests) and 503 (Service Unavailable) responses is used instead when present.
+ * <p>
+ * Retries are scheduled, no thread waits for them.
+ *
+ * @see dev.vankka.dependencydownload.DependencyManager#setRetryPolicy(RetryPolicy)
+ */
+@SuppressWarnings("unused") // API
+public class RetryPolicy {
+
+    /**
+     * Never retries, the next repository is tried right away.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+
+    /**
+     * Creates a {@link RetryPolicy}.
+     *
+     * @param maxAttempts the maximum amount of attempts per repository, including the first attempt
+     * @param initialBackoff the delay before the first retry
+     * @param maxBackoff the maximum delay before a retry, a {@code Retry-After} longer than this moves on to the next repository instead
+     */
+    public RetryPolicy(int maxAttempts, @NotNull Duration initialBackoff, @NotNull Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Backoff cannot be negative and max backoff cannot be less than initial backoff");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff.toMillis();
+        this.maxBackoff = maxBackoff.toMillis();
+    }
+
+    /**
+     * Gets the maximum amount of attempts per repository.
+     * @return the maximum amount of attempts, including the first attempt
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * If a download that failed with the provided throwable may succeed when tried again from the same repository.
+     * Missing files (404, 410), other client errors and hash mismatches are not retryable,
+     * timeouts (408), rate limiting (429), server errors and connection failures are.
+     *
+     * @param throwable the reason the download failed
+     * @return {@code true} if the download should be retried
+     */
+    public boolean isRetryable(@NotNull Throwable throwable) {
+        if (throwable instanceof ResponseCodeException) {
+            int responseCode = ((ResponseCodeException) throwable).getResponseCode();
+            return responseCode == 408 || responseCode == 429 || responseCode >= 500;
+        }
+        if (throwable instanceof SecurityException) {
+            // Hash mismatch, the repository will respond with the same file
+            return false;
+        }
+        if (throwable instanceof FileNotFoundException || throwable instanceof NoSuchFileException) {
+            return false;
+        }
+        if (throwable instanceof InterruptedIOException && !(throwable instanceof SocketTimeoutException)) {
+            // Interrupted, not timed out
+            return false;
+        }
+        return throwable instanceof IOException;
+    }
+
+    /**
+     * Gets the delay before the next attempt.
+     *
+     * @param attempt the attempt that failed, starting from {@code 1}
+     * @param throwable the reason the attempt failed
+     * @return the delay in milliseconds, or {@code -1} if the download should not be retried from the same repository
+     */
+    public long getRetryDelay(int attempt, @NotNull Throwable throwable) {
+        if (attempt >= maxAttempts || !isRetryable(throwable)) {
+            return -1;
+        }
+
+        if (throwable instanceof ResponseCodeException) {
+            ResponseCodeException exception = (ResponseCodeException) throwable;
+            int responseCode = exception.getResponseCode();
+            if (responseCode == 429 || responseCode == 503) {
+                long retryAfter = parseRetryAfter(exception.getRetryAfter());
+                if (retryAfter > maxBackoff) {
+                    // Not waiting that long, try another repository
+                    return -1;
+                } else if (retryAfter >= 0) {
+                    return retryAfter;
+                }
+            }
+        }
+
+        long delay = initialBackoff << Math.min(attempt - 1, 30);
+        if (delay < 0 || delay > maxBackoff) {
+            delay = maxBackoff;
+        }
+        // Equal jitter: between half and the full delay
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    /**
+     * @return the delay in milliseconds, or {@code -1} if not present or invalid
+     */
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return -1;
+        }
+        retryAfter = retryAfter.trim();
+
+        try {
+            // Saturates instead of overflowing, so a huge delay stays longer than the max backoff
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+        } catch (NumberFormatException ignored) {}
+
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+        } catch (DateTimeParseException ignored) {
+            return -1;
+        }
+    }
+}
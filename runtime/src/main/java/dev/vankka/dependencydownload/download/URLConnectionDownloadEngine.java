@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+
+/**
+ * {@link DownloadEngine} using {@link Repository#openConnection(Dependency)}.
+ */
+final class URLConnectionDownloadEngine implements DownloadEngine {
+
+    static final URLConnectionDownloadEngine INSTANCE = new URLConnectionDownloadEngine();
+
+    private URLConnectionDownloadEngine() {}
+
+    /**
+     * Gets the value for the {@code Range} header.
+     * @return the value or {@code null} if the entire file is being requested
+     */
+    @Nullable
+    static String rangeHeader(long rangeStart, long rangeEnd) {
+        if (rangeStart <= 0 && rangeEnd < 0) {
+            return null;
+        }
+        return "bytes=" + Math.max(rangeStart, 0) + "-" + (rangeEnd >= 0 ? String.valueOf(rangeEnd) : "");
+    }
+
+    private static DownloadResponse response(URLConnection connection) throws IOException {
+        int responseCode = -1;
+        if (connection instanceof HttpURLConnection) {
+            HttpURLConnection httpConnection = (HttpURLConnection) connection;
+            responseCode = httpConnection.getResponseCode();
+            if (responseCode < 200 || responseCode >= 300) {
+                InputStream errorStream = httpConnection.getErrorStream();
+                if (errorStream != null) {
+                    errorStream.close();
+                }
+                throw new ResponseCodeException(
+                        responseCode,
+                        connection.getURL().toString(),
+                        httpConnection.getHeaderField("Retry-After")
+                );
+            }
+        }
+        return new Response(connection, responseCode);
+    }
+
+    @Override
+    public @NotNull DownloadResponse open(
+            @NotNull Repository repository,
+            @NotNull Dependency dependency,
+            long rangeStart,
+            long rangeEnd
+    ) throws IOException {
+        return open(repository.openConnection(dependency), rangeStart, rangeEnd);
+    }
+
+    static DownloadResponse open(URLConnection connection, long rangeStart, long rangeEnd) throws IOException {
+        String range = rangeHeader(rangeStart, rangeEnd);
+        if (range != null && connection instanceof HttpURLConnection) {
+            connection.setRequestProperty("Range", range);
+        }
+        return response(connection);
+    }
+
+    private static class Response implements DownloadResponse {
+
+        private final URLConnection connection;
+        private final int responseCode;
+        private final InputStream inputStream;
+
+        private Response(URLConnection connection, int responseCode) throws IOException {
+            this.connection = connection;
+            this.responseCode = responseCode;
+            this.inputStream = connection.getInputStream();
+        }
+
+        @Override
+        public int getResponseCode() {
+            return responseCode;
+        }
+
+        @Override
+        public long getContentLength() {
+            return connection.getContentLengthLong();
+        }
+
+        @Override
+        public @Nullable String getHeader(@NotNull String name) {
+            return connection.getHeaderField(name);
+        }
+
+        @Override
+        public @NotNull InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
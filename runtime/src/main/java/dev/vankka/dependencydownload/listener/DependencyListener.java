@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.listener;
+
+import dev.vankka.dependencydownload.DependencyManagerStats;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Listener for the work done by a {@link dev.vankka.dependencydownload.DependencyManager}, for collecting metrics.
+ * Override the methods you need, they are called from the threads doing the work and should return quickly.
+ */
+@SuppressWarnings("unused")
+public interface DependencyListener {
+
+    /**
+     * A dependency started a phase, called from the thread that works on the dependency.
+     *
+     * @param phase the phase
+     * @param dependency the dependency
+     * @param queued the time spent waiting for the executor to run the phase for the dependency
+     */
+    default void phaseStarted(
+            @NotNull DependencyManagerStats.Phase phase,
+            @NotNull Dependency dependency,
+            @NotNull Duration queued
+    ) {}
+
+    /**
+     * A dependency finished a phase.
+     *
+     * @param phase the phase
+     * @param dependency the dependency
+     * @param outcome the outcome of the phase for the dependency
+     * @param time the time spent on the dependency, from when it started until it finished
+     */
+    default void phaseCompleted(
+            @NotNull DependencyManagerStats.Phase phase,
+            @NotNull Dependency dependency,
+            @NotNull Outcome outcome,
+            @NotNull Duration time
+    ) {}
+
+    /**
+     * A repository responded to a request for a dependency, the transfer of the dependency follows.
+     *
+     * @param dependency the dependency
+     * @param repository the repository
+     * @param time the time from starting the request until the repository responded
+     */
+    default void repositoryConnected(
+            @NotNull Dependency dependency,
+            @NotNull Repository repository,
+            @NotNull Duration time
+    ) {}
+
+    /**
+     * A request for a dependency to a repository finished, either successfully or by failing.
+     *
+     * @param dependency the dependency
+     * @param repository the repository
+     * @param failure the reason the request failed, or {@code null} if the dependency was downloaded from the repository
+     * @param bytes the amount of bytes downloaded (or copied from a local repository)
+     * @param time the time from starting the request until it finished
+     */
+    default void repositoryRequest(
+            @NotNull Dependency dependency,
+            @NotNull Repository repository,
+            @Nullable Throwable failure,
+            long bytes,
+            @NotNull Duration time
+    ) {}
+
+    /**
+     * A file for a dependency was hashed from the disk, either to verify it or to resume a download.
+     *
+     * @param dependency the dependency
+     * @param bytes the size of the file
+     * @param time the time spent hashing
+     */
+    default void fileHashed(@NotNull Dependency dependency, long bytes, @NotNull Duration time) {}
+
+    /**
+     * The outcome of a phase for a single dependency.
+     */
+    enum Outcome {
+
+        /**
+         * The dependency was downloaded, relocated or loaded.
+         */
+        COMPLETED,
+
+        /**
+         * The dependency was already downloaded or relocated.
+         */
+        SKIPPED,
+
+        /**
+         * The phase failed for the dependency.
+         */
+        FAILED
+    }
+}
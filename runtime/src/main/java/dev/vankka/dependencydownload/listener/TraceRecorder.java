@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.listener;
+
+import dev.vankka.dependencydownload.DependencyManagerStats;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the work done for each dependency as a timeline in the Chrome trace event format,
+ * which can be opened in <a href="https://ui.perfetto.dev">Perfetto</a> or {@code chrome://tracing}.
+ * <p>
+ * Work is shown on the thread that did it: connecting to repositories, transferring, hashing, relocating
+ * and appending to the classpath. Gaps between them are idle executor time.
+ * Downloads are also shown from start to end on a separate track for each dependency, as they can move between threads,
+ * and so is the time each dependency waited in the executor's queue, as no thread was working on it.
+ */
+@SuppressWarnings("unused") // API
+public class TraceRecorder implements DependencyListener {
+
+    private static final int PROCESS_ID = 1;
+
+    private final long origin = System.nanoTime();
+    private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private final Map<Long, String> threads = new ConcurrentHashMap<>();
+    private final Map<Dependency, Long> connected = new ConcurrentHashMap<>();
+    private final Map<Dependency, Long> downloadIds = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Override
+    public void phaseStarted(
+            @NotNull DependencyManagerStats.Phase phase,
+            @NotNull Dependency dependency,
+            @NotNull Duration queued
+    ) {
+        long now = System.nanoTime();
+        if (phase == DependencyManagerStats.Phase.DOWNLOAD) {
+            long id = nextId.incrementAndGet();
+            downloadIds.put(dependency, id);
+            events.add(new Event('b', dependency.getGAV(), "download", now, -1, 0, id));
+        }
+
+        long queuedNanos = queued.toNanos();
+        if (queuedNanos > 0) {
+            long id = nextId.incrementAndGet();
+            events.add(new Event('b', "queued", "queue", now - queuedNanos, -1, 0, id, "dependency", dependency.getGAV(), "phase", name(phase)));
+            events.add(new Event('e', "queued", "queue", now, -1, 0, id));
+        }
+    }
+
+    @Override
+    public void phaseCompleted(
+            @NotNull DependencyManagerStats.Phase phase,
+            @NotNull Dependency dependency,
+            @NotNull Outcome outcome,
+            @NotNull Duration time
+    ) {
+        long now = System.nanoTime();
+        switch (phase) {
+            case DOWNLOAD:
+                Long id = downloadIds.remove(dependency);
+                if (id != null) {
+                    events.add(new Event('e', dependency.getGAV(), "download", now, -1, 0, id, "outcome", name(outcome)));
+                }
+                break;
+            case RELOCATE:
+                span("relocate", "relocate", now - time.toNanos(), time.toNanos(), "dependency", dependency.getGAV(), "outcome", name(outcome));
+                break;
+            case LOAD:
+                span("append", "load", now - time.toNanos(), time.toNanos(), "dependency", dependency.getGAV(), "outcome", name(outcome));
+                break;
+        }
+    }
+
+    @Override
+    public void repositoryConnected(@NotNull Dependency dependency, @NotNull Repository repository, @NotNull Duration time) {
+        long now = System.nanoTime();
+        connected.put(dependency, now);
+        span("connect", "download", now - time.toNanos(), time.toNanos(), "dependency", dependency.getGAV(), "repository", repository.getHost());
+    }
+
+    @Override
+    public void repositoryRequest(
+            @NotNull Dependency dependency,
+            @NotNull Repository repository,
+            @Nullable Throwable failure,
+            long bytes,
+            @NotNull Duration time
+    ) {
+        long now = System.nanoTime();
+        Long connectedAt = connected.remove(dependency);
+        long start = connectedAt != null ? connectedAt : now - time.toNanos();
+        span(
+                failure == null ? "transfer" : "failed",
+                "download",
+                start,
+                now - start,
+                "dependency", dependency.getGAV(),
+                "repository", repository.getHost(),
+                "bytes", String.valueOf(bytes),
+                "error", failure != null ? failure.toString() : null
+        );
+    }
+
+    @Override
+    public void fileHashed(@NotNull Dependency dependency, long bytes, @NotNull Duration time) {
+        long now = System.nanoTime();
+        span("hash", "hash", now - time.toNanos(), time.toNanos(), "dependency", dependency.getGAV(), "bytes", String.valueOf(bytes));
+    }
+
+    private void span(String name, String category, long start, long duration, String... args) {
+        Thread thread = Thread.currentThread();
+        threads.putIfAbsent(thread.getId(), thread.getName());
+        events.add(new Event('X', name, category, start, duration, thread.getId(), -1, args));
+    }
+
+    private static String name(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Writes the events recorded so far to the file as trace event JSON, replacing the file if it exists.
+     * @param path the file to write to
+     * @throws IOException if writing fails
+     */
+    public void write(@NotNull Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            write(writer);
+        }
+    }
+
+    /**
+     * Writes the events recorded so far as trace event JSON, the writer is not closed.
+     * @param writer the writer to write to
+     * @throws IOException if writing fails
+     */
+    public void write(@NotNull Writer writer) throws IOException {
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + PROCESS_ID + ",\"args\":{\"name\":\"DependencyDownload\"}}");
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            writer.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PROCESS_ID + ",\"tid\":" + thread.getKey()
+                                 + ",\"args\":{\"name\":" + quote(thread.getValue()) + "}}");
+        }
+        for (Event event : events) {
+            writer.write(",\n");
+            event.write(writer);
+        }
+        writer.write("\n]}\n");
+        writer.flush();
+    }
+
+    private String micros(long nanos) {
+        return BigDecimal.valueOf(nanos, 3).toPlainString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '"' || character == '\\') {
+                builder.append('\\').append(character);
+            } else if (character < 0x20) {
+                builder.append(String.format("\\u%04x", (int) character));
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private final class Event {
+
+        private final char phase;
+        private final String name;
+        private final String category;
+        private final long start;
+        private final long duration;
+        private final long threadId;
+        private final long id;
+        private final String[] args;
+
+        private Event(char phase, String name, String category, long start, long duration, long threadId, long id, String... args) {
+            this.phase = phase;
+            this.name = name;
+            this.category = category;
+            this.start = start;
+            this.duration = duration;
+            this.threadId = threadId;
+            this.id = id;
+            this.args = args;
+        }
+
+        private void write(Writer writer) throws IOException {
+            StringBuilder builder = new StringBuilder("{\"name\":").append(quote(name))
+                    .append(",\"cat\":").append(quote(category))
+                    .append(",\"ph\":\"").append(phase).append('"')
+                    .append(",\"ts\":").append(micros(start - origin))
+                    .append(",\"pid\":").append(PROCESS_ID)
+                    .append(",\"tid\":").append(threadId);
+            if (duration >= 0) {
+                builder.append(",\"dur\":").append(micros(duration));
+            }
+            if (id >= 0) {
+                builder.append(",\"id\":").append(id);
+            }
+
+            builder.append(",\"args\":{");
+            boolean first = true;
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                if (args[i + 1] == null) {
+                    continue;
+                }
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                builder.append(quote(args[i])).append(':').append(quote(args[i + 1]));
+            }
+            writer.write(builder.append("}}").toString());
+        }
+    }
+}
@@ -25,6 +25,8 @@
 package dev.vankka.dependencydownload.logger;
 
 import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.DownloadProgress;
+import dev.vankka.dependencydownload.listener.DependencyListener;
 
 /**
  * Logger for DependencyDownload, override methods you want to log.
@@ -44,6 +46,11 @@ public interface Logger {
     default void downloadSuccess(Dependency dependency) {}
     default void downloadFailed(Dependency dependency, Throwable throwable) {}
 
+    /**
+     * Called from the downloading threads, at most once per progress interval.
+     */
+    default void downloadProgress(DownloadProgress progress) {}
+
     default void relocateStart() {}
     default void relocateEnd() {}
 
@@ -58,4 +65,6 @@ public interface Logger {
     default void loadSuccess(Dependency dependency) {}
     default void loadFailed(Dependency dependency, Throwable throwable) {}
 
+    default void listenerFailed(DependencyListener listener, Throwable throwable) {}
+
 }
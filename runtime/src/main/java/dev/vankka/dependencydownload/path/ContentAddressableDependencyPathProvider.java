@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.path;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * A {@link DependencyPathProvider} that stores downloaded files once per hash, in {@code blobs/<hashing algorithm>/<hash>}.
+ * The dependency paths (named like {@link DirectoryDependencyPathProvider}'s) are hard links to the stored files
+ * (or symbolic links or copies if hard links aren't supported).
+ * <p>
+ * Dependencies with the same hash are only downloaded once and only stored once, even if their coordinates differ.
+ * Relocated files are not content-addressable, as their contents depend on the relocations.
+ */
+public class ContentAddressableDependencyPathProvider extends DirectoryDependencyPathProvider {
+
+    private static final String BLOB_DIRECTORY = "blobs";
+    private final Path blobDirectory;
+
+    /**
+     * Creates a {@link ContentAddressableDependencyPathProvider}.
+     * @param dependencyDirectory the directory used for downloaded and relocated dependencies.
+     */
+    public ContentAddressableDependencyPathProvider(Path dependencyDirectory) {
+        super(dependencyDirectory);
+        this.blobDirectory = dependencyDirectory.resolve(BLOB_DIRECTORY);
+    }
+
+    @Override
+    public @NotNull Path getStoragePath(@NotNull Dependency dependency) {
+        String algorithm = dependency.getHashingAlgorithm().toLowerCase(Locale.ROOT);
+        String hash = dependency.getHash().toLowerCase(Locale.ROOT);
+        if (!algorithm.matches("[a-z0-9-]+") || !hash.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Invalid hash for dependency " + dependency.getGAV());
+        }
+        return blobDirectory.resolve(algorithm).resolve(hash);
+    }
+
+    @Override
+    public @NotNull Collection<Path> getPathsForAllStoredDependencies() throws IOException {
+        List<Path> paths = new ArrayList<>(super.getPathsForAllStoredDependencies());
+        if (!Files.isDirectory(blobDirectory)) {
+            return paths;
+        }
+
+        try (Stream<Path> algorithmDirectories = Files.list(blobDirectory)) {
+            for (Path algorithmDirectory : (Iterable<Path>) algorithmDirectories::iterator) {
+                if (!Files.isDirectory(algorithmDirectory)) {
+                    paths.add(algorithmDirectory);
+                    continue;
+                }
+                try (Stream<Path> blobs = Files.list(algorithmDirectory)) {
+                    blobs.forEach(paths::add);
+                }
+            }
+        }
+        return paths;
+    }
+}
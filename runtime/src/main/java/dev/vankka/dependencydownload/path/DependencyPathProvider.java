@@ -39,6 +39,10 @@ public interface DependencyPathProvider {
         return new DirectoryDependencyPathProvider(directory);
     }
 
+    static ContentAddressableDependencyPathProvider contentAddressable(Path directory) {
+        return new ContentAddressableDependencyPathProvider(directory);
+    }
+
     /**
      * Gets the path that should be used for the provided {@link Dependency}.
      * @param dependency the dependency
@@ -48,4 +52,17 @@ public interface DependencyPathProvider {
     @NotNull
     Path getDependencyPath(@NotNull Dependency dependency, boolean relocated);
 
+    /**
+     * Gets the path the downloaded file for the provided {@link Dependency} is stored at.
+     * If this is not the unrelocated {@link #getDependencyPath(Dependency, boolean) dependency path},
+     * the dependency path is linked to this path after downloading.
+     *
+     * @param dependency the dependency
+     * @return The absolute or relative path the downloaded file is stored at
+     */
+    @NotNull
+    default Path getStoragePath(@NotNull Dependency dependency) {
+        return getDependencyPath(dependency, false);
+    }
+
 }
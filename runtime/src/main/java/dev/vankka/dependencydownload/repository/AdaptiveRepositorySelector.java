@@ -0,0 +1,248 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * A {@link RepositorySelector} that orders repositories by their recorded time-to-first-byte, throughput and failure rate.
+ * <p>
+ * The statistics are kept per {@link Repository#getHost()} and persisted to the provided file
+ * once all the downloads of a {@link dev.vankka.dependencydownload.DependencyManager#download} call have completed,
+ * so later runs benefit from them. Store the file next to the dependency directory rather than inside it,
+ * as {@link dev.vankka.dependencydownload.DependencyManager#cleanupCacheDirectory()} deletes unknown files.
+ * <p>
+ * Repositories that have mostly failed recently are tried after all other repositories,
+ * repositories without statistics are tried after healthy repositories (in the order they were provided).
+ * Only timeouts, connection errors, rate limiting (429) and server errors (5xx) count as failures,
+ * a repository not having an artifact (404, 410) or rejecting the request says nothing about its health
+ * and is left to the {@link MissingArtifactCache}.
+ */
+@SuppressWarnings("unused") // API
+public class AdaptiveRepositorySelector implements RepositorySelector {
+
+    /**
+     * The weight of the newest sample in the moving averages.
+     */
+    private static final double SMOOTHING = 0.3;
+    private static final int MIN_SAMPLES = 3;
+    private static final double UNHEALTHY_SUCCESS_RATE = 0.5;
+    private static final double SKIP_SUCCESS_RATE = 0.1;
+
+    /**
+     * The size used to estimate transfer time from throughput.
+     */
+    private static final double ESTIMATE_BYTES = 1024 * 1024;
+
+    private final Path file;
+    private final Map<String, Stats> stats = new HashMap<>();
+    private final Object writeLock = new Object();
+    private boolean dirty = false;
+
+    /**
+     * Creates a {@link AdaptiveRepositorySelector}, loading existing statistics from the file if it exists.
+     * @param file the file to store statistics in
+     */
+    public AdaptiveRepositorySelector(@NotNull Path file) {
+        this.file = file;
+        load();
+    }
+
+    @Override
+    public synchronized @NotNull List<Repository> select(@NotNull Dependency dependency, @NotNull List<Repository> repositories) {
+        List<Repository> ordered = new ArrayList<>(repositories);
+        // List.sort is stable, repositories in the same tier with the same score stay in the provided order
+        ordered.sort(Comparator.<Repository>comparingInt(repository -> tier(stats.get(repository.getHost())))
+                             .thenComparingDouble(repository -> score(stats.get(repository.getHost()))));
+        return ordered;
+    }
+
+    private int tier(Stats stats) {
+        if (stats == null) {
+            return 1;
+        }
+        if (stats.samples >= MIN_SAMPLES) {
+            if (stats.successRate < SKIP_SUCCESS_RATE) {
+                return 3;
+            } else if (stats.successRate < UNHEALTHY_SUCCESS_RATE) {
+                return 2;
+            }
+        }
+        return 0;
+    }
+
+    private double score(Stats stats) {
+        if (stats == null) {
+            return 0;
+        }
+
+        // Estimated milliseconds to download a dependency, adjusted for the likelihood of having to try another repository
+        double estimate = Math.max(stats.timeToFirstByte, 0);
+        if (stats.throughput > 0) {
+            estimate += ESTIMATE_BYTES / stats.throughput;
+        }
+        return estimate / Math.max(stats.successRate, 0.01);
+    }
+
+    @Override
+    public void recordSuccess(
+            @NotNull Repository repository,
+            @NotNull Dependency dependency,
+            long timeToFirstByte,
+            long bytes,
+            long transferTime
+    ) {
+        synchronized (this) {
+            Stats stats = this.stats.computeIfAbsent(repository.getHost(), key -> new Stats());
+            stats.successRate = stats.samples == 0 ? 1 : average(stats.successRate, 1);
+            stats.timeToFirstByte = average(stats.timeToFirstByte, timeToFirstByte / 1_000_000D);
+            if (bytes > 0 && transferTime > 0) {
+                stats.throughput = average(stats.throughput, bytes / (transferTime / 1_000_000D));
+            }
+            stats.samples++;
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void recordFailure(@NotNull Repository repository, @NotNull Dependency dependency, @NotNull Throwable throwable) {
+        if (!isUnhealthy(throwable)) {
+            return;
+        }
+        synchronized (this) {
+            Stats stats = this.stats.computeIfAbsent(repository.getHost(), key -> new Stats());
+            stats.successRate = stats.samples == 0 ? 0 : average(stats.successRate, 0);
+            stats.samples++;
+            dirty = true;
+        }
+    }
+
+    private static boolean isUnhealthy(Throwable throwable) {
+        if (throwable instanceof ResponseCodeException) {
+            int responseCode = ((ResponseCodeException) throwable).getResponseCode();
+            return responseCode == 408 || responseCode == 429 || responseCode >= 500;
+        }
+        if (MissingArtifactCache.isNotFound(throwable)) {
+            return false;
+        }
+        if (throwable instanceof InterruptedIOException && !(throwable instanceof SocketTimeoutException)) {
+            // Interrupted, not timed out
+            return false;
+        }
+        // Hash mismatches (SecurityException) are the artifact's problem, not the repository's availability
+        return throwable instanceof IOException;
+    }
+
+    /**
+     * Writes the statistics to the file if they have changed since they were last written.
+     * Failing to write statistics does not fail downloads, the statistics will be written again on the next flush.
+     */
+    @Override
+    public void flush() {
+        try {
+            save(false);
+        } catch (IOException ignored) {}
+    }
+
+    private synchronized void load() {
+        Properties properties = PropertiesFiles.load(file);
+        for (String host : properties.stringPropertyNames()) {
+            String[] parts = properties.getProperty(host).split(" ");
+            if (parts.length != 4) {
+                continue;
+            }
+
+            try {
+                Stats stats = new Stats();
+                stats.samples = Integer.parseInt(parts[0]);
+                stats.successRate = Double.parseDouble(parts[1]);
+                stats.timeToFirstByte = Double.parseDouble(parts[2]);
+                stats.throughput = Double.parseDouble(parts[3]);
+                this.stats.put(host, stats);
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+
+    /**
+     * Writes the statistics to the file, this is done automatically by {@link #flush()}.
+     * @throws IOException if writing the file fails
+     */
+    public void save() throws IOException {
+        save(true);
+    }
+
+    private void save(boolean force) throws IOException {
+        // The file is written outside of this selector's monitor, so downloads can record and select while it is being written
+        synchronized (writeLock) {
+            Properties properties = new Properties();
+            synchronized (this) {
+                if (!dirty && !force) {
+                    return;
+                }
+                for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+                    Stats stats = entry.getValue();
+                    properties.setProperty(
+                            entry.getKey(),
+                            stats.samples + " " + stats.successRate + " " + stats.timeToFirstByte + " " + stats.throughput
+                    );
+                }
+                dirty = false;
+            }
+
+            try {
+                PropertiesFiles.store(file, properties, "DependencyDownload repository statistics: samples successRate timeToFirstByte(ms) throughput(bytes/ms)");
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static double average(double current, double sample) {
+        if (current < 0) {
+            // No previous samples
+            return sample;
+        }
+        return current + SMOOTHING * (sample - current);
+    }
+
+    private static class Stats {
+
+        private int samples = 0;
+        private double successRate = 1;
+        private double timeToFirstByte = -1;
+        private double throughput = -1;
+    }
+}
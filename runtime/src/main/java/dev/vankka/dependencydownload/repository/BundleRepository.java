@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * A {@link Repository} serving a single bundle archive that contains many dependencies,
+ * made with the Gradle plugin's {@code bundleRuntimeDownloadResource} tasks.
+ * <p>
+ * {@link dev.vankka.dependencydownload.DependencyManager} downloads the bundle once with a single request
+ * and splits it into the files for all of its dependencies as it is streamed, verifying the hash of every file.
+ * Dependencies that are not in the bundle fall back to the next repository.
+ */
+@SuppressWarnings("unused") // API
+public class BundleRepository implements Repository {
+
+    private final String url;
+    private final String host;
+
+    /**
+     * Creates a bundle repository.
+     * @param url the url of the bundle archive
+     * @throws IllegalArgumentException if the url is not a valid absolute url
+     */
+    public BundleRepository(@NotNull String url) {
+        URI uri = URI.create(url);
+        if (!uri.isAbsolute() || uri.getRawAuthority() == null) {
+            throw new IllegalArgumentException("Bundle url must be absolute: " + url);
+        }
+        this.url = url;
+        this.host = uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    /**
+     * Gets the url of the bundle archive.
+     * @return the url
+     */
+    @NotNull
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Creates the url of the bundle, which is the same for every dependency.
+     * @param dependency the dependency
+     * @return the url of the bundle archive
+     * @throws MalformedURLException if the url syntax is invalid
+     */
+    @Override
+    public URL createURL(Dependency dependency) throws MalformedURLException {
+        return new URL(url);
+    }
+}
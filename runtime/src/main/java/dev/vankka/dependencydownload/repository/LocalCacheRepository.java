@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Repository} for the local Maven repository or the Gradle dependency cache on this machine.
+ * <p>
+ * {@link dev.vankka.dependencydownload.DependencyManager} does not stream files from this repository,
+ * the files are verified against the expected hash and then hard linked (or copied) into place.
+ * Download engines can still open it as a {@code file:} url, for example when hedging.
+ */
+@SuppressWarnings("unused") // API
+public class LocalCacheRepository implements Repository {
+
+    /**
+     * The local Maven repository, the {@code maven.repo.local} system property or {@code ~/.m2/repository}.
+     * @return a new {@link LocalCacheRepository} for the local Maven repository
+     */
+    @NotNull
+    public static LocalCacheRepository mavenLocal() {
+        String repositoryLocal = System.getProperty("maven.repo.local");
+        Path directory = repositoryLocal != null && !repositoryLocal.isEmpty()
+                         ? Paths.get(repositoryLocal)
+                         : Paths.get(System.getProperty("user.home"), ".m2", "repository");
+        return new LocalCacheRepository(directory, Layout.MAVEN);
+    }
+
+    /**
+     * The Gradle dependency cache, {@code caches/modules-2/files-2.1} in the {@code GRADLE_USER_HOME} environment variable or {@code ~/.gradle}.
+     * @return a new {@link LocalCacheRepository} for the Gradle dependency cache
+     */
+    @NotNull
+    public static LocalCacheRepository gradleCache() {
+        String gradleUserHome = System.getenv("GRADLE_USER_HOME");
+        Path home = gradleUserHome != null && !gradleUserHome.isEmpty()
+                    ? Paths.get(gradleUserHome)
+                    : Paths.get(System.getProperty("user.home"), ".gradle");
+        return new LocalCacheRepository(home.resolve("caches").resolve("modules-2").resolve("files-2.1"), Layout.GRADLE);
+    }
+
+    private final Path directory;
+    private final Layout layout;
+
+    /**
+     * Creates a {@link LocalCacheRepository}.
+     * @param directory the root directory of the repository or cache
+     * @param layout the layout of the directory
+     */
+    public LocalCacheRepository(@NotNull Path directory, @NotNull Layout layout) {
+        this.directory = directory;
+        this.layout = layout;
+    }
+
+    /**
+     * Gets the root directory of this repository.
+     * @return the directory
+     */
+    @NotNull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gets the layout of this repository.
+     * @return the layout
+     */
+    @NotNull
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public String getHost() {
+        return directory.toUri().toString();
+    }
+
+    @Override
+    public URL createURL(Dependency dependency) throws MalformedURLException {
+        List<Path> candidates;
+        try {
+            candidates = getCandidates(dependency);
+        } catch (IOException e) {
+            candidates = Collections.emptyList();
+        }
+
+        Path path = !candidates.isEmpty()
+                    ? candidates.get(0)
+                    : directory.resolve(getMavenDependency(dependency).getMavenPath());
+        return path.toUri().toURL();
+    }
+
+    /**
+     * Gets the existing files in this repository that may be the provided dependency, they should be verified before use.
+     * The Gradle cache can contain multiple files for the same dependency (under the hash of each file).
+     *
+     * @param dependency the dependency
+     * @return the existing files, empty if the dependency isn't in this repository
+     * @throws IOException if listing the Gradle cache fails
+     */
+    @NotNull
+    public List<Path> getCandidates(@NotNull Dependency dependency) throws IOException {
+        MavenDependency mavenDependency = getMavenDependency(dependency);
+        switch (layout) {
+            case MAVEN:
+                Path path = directory.resolve(mavenDependency.getMavenPath());
+                return Files.isRegularFile(path) ? Collections.singletonList(path) : Collections.emptyList();
+            case GRADLE:
+                // <group>/<artifact>/<version>/<sha1 of the file>/<file>
+                Path versionDirectory = directory
+                        .resolve(dependency.getGroupId())
+                        .resolve(dependency.getArtifactId())
+                        .resolve(dependency.getVersion());
+                if (!Files.isDirectory(versionDirectory)) {
+                    return Collections.emptyList();
+                }
+
+                List<Path> candidates = new ArrayList<>();
+                try (Stream<Path> hashDirectories = Files.list(versionDirectory)) {
+                    hashDirectories.forEach(hashDirectory -> {
+                        Path file = hashDirectory.resolve(dependency.getFileName());
+                        if (Files.isRegularFile(file)) {
+                            candidates.add(file);
+                        }
+                    });
+                }
+                return candidates;
+            default:
+                throw new IllegalStateException("Unknown layout: " + layout);
+        }
+    }
+
+    private static MavenDependency getMavenDependency(Dependency dependency) {
+        if (!(dependency instanceof MavenDependency)) {
+            throw new IllegalArgumentException("Not a MavenDependency");
+        }
+        return (MavenDependency) dependency;
+    }
+
+    public enum Layout {
+        /**
+         * {@code <group as directories>/<artifact>/<version>/<file>}, as in {@code ~/.m2/repository}.
+         */
+        MAVEN,
+
+        /**
+         * {@code <group>/<artifact>/<version>/<sha1>/<file>}, as in {@code ~/.gradle/caches/modules-2/files-2.1}.
+         */
+        GRADLE
+    }
+}
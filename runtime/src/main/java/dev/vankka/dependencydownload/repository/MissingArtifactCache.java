@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Remembers which repositories did not have a dependency, so they are not asked for it again until the entry expires.
+ * <p>
+ * Entries are kept per {@link Repository#getHost()} and path of the dependency, and persisted to the provided file
+ * once all the downloads of a {@link dev.vankka.dependencydownload.DependencyManager#download} call have completed,
+ * so later runs benefit from them. Store the file next to the dependency directory rather than inside it,
+ * as {@link dev.vankka.dependencydownload.DependencyManager#cleanupCacheDirectory()} deletes unknown files.
+ *
+ * @see dev.vankka.dependencydownload.DependencyManager#setMissingArtifactCache(MissingArtifactCache)
+ */
+@SuppressWarnings("unused") // API
+public class MissingArtifactCache {
+
+    private final Path file;
+    private final long timeToLive;
+    private final Map<String, Long> expiries = new HashMap<>();
+    private final Object writeLock = new Object();
+    private boolean dirty = false;
+
+    /**
+     * Creates a {@link MissingArtifactCache}, loading existing entries from the file if it exists.
+     * @param file the file to store entries in
+     * @param timeToLive how long a repository is considered to not have a dependency after it responded with not found
+     */
+    public MissingArtifactCache(@NotNull Path file, @NotNull Duration timeToLive) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.file = file;
+        this.timeToLive = timeToLive.toMillis();
+        load();
+    }
+
+    /**
+     * If the repository is known to not have the dependency.
+     * @param repository the repository
+     * @param dependency the dependency
+     * @return {@code true} if the repository responded with not found for the dependency within the time to live
+     */
+    public synchronized boolean isMissing(@NotNull Repository repository, @NotNull Dependency dependency) {
+        String key = key(repository, dependency);
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry <= System.currentTimeMillis()) {
+            expiries.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that the repository does not have the dependency.
+     * @param repository the repository
+     * @param dependency the dependency
+     */
+    public synchronized void recordMissing(@NotNull Repository repository, @NotNull Dependency dependency) {
+        expiries.put(key(repository, dependency), System.currentTimeMillis() + timeToLive);
+        dirty = true;
+    }
+
+    /**
+     * Records that the repository has the dependency, removing the entry for it if there is one.
+     * @param repository the repository
+     * @param dependency the dependency
+     */
+    public synchronized void recordFound(@NotNull Repository repository, @NotNull Dependency dependency) {
+        if (expiries.remove(key(repository, dependency)) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * If the provided throwable, thrown while downloading from a repository, means that the repository doesn't have the dependency.
+     * @param throwable the throwable
+     * @return {@code true} for not found and gone responses
+     */
+    public static boolean isNotFound(@NotNull Throwable throwable) {
+        if (throwable instanceof ResponseCodeException) {
+            int responseCode = ((ResponseCodeException) throwable).getResponseCode();
+            return responseCode == 404 || responseCode == 410;
+        }
+        // Thrown for file: repositories
+        return throwable instanceof FileNotFoundException || throwable instanceof NoSuchFileException;
+    }
+
+    private static String key(Repository repository, Dependency dependency) {
+        String path = dependency instanceof MavenDependency
+                      ? ((MavenDependency) dependency).getMavenPath()
+                      : dependency.getGAV() + "/" + dependency.getFileName();
+        return repository.getHost() + '/' + path;
+    }
+
+    private synchronized void load() {
+        Properties properties = PropertiesFiles.load(file);
+        long now = System.currentTimeMillis();
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                long expiry = Long.parseLong(properties.getProperty(key));
+                if (expiry > now) {
+                    expiries.put(key, expiry);
+                }
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+
+    /**
+     * Writes the entries to the file if they have changed since they were last written,
+     * this is done automatically once all the downloads of a {@link dev.vankka.dependencydownload.DependencyManager#download} call have completed.
+     * Failing to write entries does not fail downloads, the entries will be written again on the next flush.
+     */
+    public void flush() {
+        try {
+            save(false);
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Writes the entries that have not expired to the file.
+     * @throws IOException if writing the file fails
+     */
+    public void save() throws IOException {
+        save(true);
+    }
+
+    private void save(boolean force) throws IOException {
+        // The file is written outside of this cache's monitor, so downloads can check and record entries while it is being written
+        synchronized (writeLock) {
+            Properties properties = new Properties();
+            synchronized (this) {
+                if (!dirty && !force) {
+                    return;
+                }
+                long now = System.currentTimeMillis();
+                Iterator<Map.Entry<String, Long>> iterator = expiries.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Long> entry = iterator.next();
+                    if (entry.getValue() <= now) {
+                        iterator.remove();
+                        continue;
+                    }
+                    properties.setProperty(entry.getKey(), Long.toString(entry.getValue()));
+                }
+                dirty = false;
+            }
+
+            try {
+                PropertiesFiles.store(file, properties, "DependencyDownload missing artifacts: repository/path=expiry(epoch ms)");
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reading and atomically replacing the {@link Properties} files repository selectors persist their state in.
+ */
+final class PropertiesFiles {
+
+    private PropertiesFiles() {}
+
+    /**
+     * Loads the file.
+     * @return the properties, empty if the file does not exist or could not be read
+     */
+    static Properties load(Path file) {
+        Properties properties = new Properties();
+        if (!Files.exists(file)) {
+            return properties;
+        }
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        } catch (IOException ignored) {
+            // Start from scratch
+            return new Properties();
+        }
+        return properties;
+    }
+
+    /**
+     * Writes the properties to a temporary file which then replaces the file, so readers never see a partially written file.
+     */
+    static void store(Path file, Properties properties, String comments) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path temporaryFile = getTemporaryPath(file);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                properties.store(outputStream, comments);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Gets a unique path in the same directory as the provided path, so processes sharing the directory don't write to the same temporary file.
+     */
+    static Path getTemporaryPath(Path file) {
+        String random = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return file.resolveSibling(file.getFileName() + "." + random + ".tmp");
+    }
+}
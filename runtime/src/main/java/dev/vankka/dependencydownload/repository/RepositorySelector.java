@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Decides the order repositories are tried in for each {@link Dependency}, and receives the outcome of every attempt.
+ */
+@FunctionalInterface
+public interface RepositorySelector {
+
+    /**
+     * Tries repositories in the order they were provided.
+     */
+    RepositorySelector IN_ORDER = (dependency, repositories) -> repositories;
+
+    /**
+     * Orders the repositories to try for the provided dependency.
+     *
+     * @param dependency the dependency about to be downloaded
+     * @param repositories the repositories provided to {@link dev.vankka.dependencydownload.DependencyManager#download}, in order
+     * @return the repositories to try, in order
+     */
+    @NotNull
+    List<Repository> select(@NotNull Dependency dependency, @NotNull List<Repository> repositories);
+
+    /**
+     * Called when a dependency was successfully downloaded (and verified) from a repository.
+     *
+     * @param repository the repository
+     * @param dependency the dependency
+     * @param timeToFirstByte the time in nanoseconds it took the repository to respond
+     * @param bytes the amount of bytes transferred
+     * @param transferTime the time in nanoseconds it took to transfer the bytes
+     */
+    default void recordSuccess(
+            @NotNull Repository repository,
+            @NotNull Dependency dependency,
+            long timeToFirstByte,
+            long bytes,
+            long transferTime
+    ) {}
+
+    /**
+     * Called when downloading a dependency from a repository failed.
+     *
+     * @param repository the repository
+     * @param dependency the dependency
+     * @param throwable the reason the download failed
+     */
+    default void recordFailure(@NotNull Repository repository, @NotNull Dependency dependency, @NotNull Throwable throwable) {}
+
+    /**
+     * Called once all the downloads of a {@link dev.vankka.dependencydownload.DependencyManager#download} call have completed,
+     * to persist the outcomes recorded since the last flush.
+     */
+    default void flush() {}
+}
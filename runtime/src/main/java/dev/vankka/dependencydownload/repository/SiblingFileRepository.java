@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A file on a repository other than a dependency's jar (checksums, metadata), requested with the repository's connection settings.
+ * The repository's own connection is only used as a template, it is never connected.
+ */
+@ApiStatus.Internal
+public final class SiblingFileRepository implements Repository {
+
+    private static final int MAX_CHECKSUM_LENGTH = 1024;
+
+    /**
+     * A file next to the dependency's jar, like its {@code .sha1} checksum.
+     *
+     * @param repository the repository the jar is on
+     * @param extension the extension added to the jar's url
+     * @return the repository for the file
+     */
+    @NotNull
+    public static SiblingFileRepository jarSibling(@NotNull Repository repository, @NotNull String extension) {
+        return new SiblingFileRepository(repository, null, extension, Collections.emptyMap());
+    }
+
+    /**
+     * A file at the provided path on the repository, like a {@code maven-metadata.xml}.
+     *
+     * @param repository the repository the file is on
+     * @param path the path to the file from the {@link Repository#getHost() host}, without a slash at the start
+     * @param headers additional request headers
+     * @return the repository for the file
+     */
+    @NotNull
+    public static SiblingFileRepository path(@NotNull Repository repository, @NotNull String path, @NotNull Map<String, String> headers) {
+        return new SiblingFileRepository(repository, path, "", headers);
+    }
+
+    /**
+     * Reads a checksum file, which contains the hex hash optionally followed by whitespace and the file name.
+     *
+     * @param inputStream the checksum file's content
+     * @return the {@code SHA-1} hash in lowercase, or {@code null} if the file is not a valid {@code SHA-1} checksum
+     * @throws IOException if reading the stream fails
+     */
+    @Nullable
+    public static String readChecksum(@NotNull InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[MAX_CHECKSUM_LENGTH];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+
+        String content = new String(buffer, 0, length, StandardCharsets.US_ASCII).trim();
+        String checksum = content.split("\\s+", 2)[0].toLowerCase(Locale.ROOT);
+        return checksum.matches("[0-9a-f]{40}") ? checksum : null;
+    }
+
+    private final Repository repository;
+    private final String path;
+    private final String extension;
+    private final Map<String, String> headers;
+
+    private SiblingFileRepository(Repository repository, @Nullable String path, String extension, Map<String, String> headers) {
+        this.repository = repository;
+        this.path = path;
+        this.extension = extension;
+        this.headers = headers;
+    }
+
+    @Override
+    public String getHost() {
+        return repository.getHost();
+    }
+
+    @Override
+    public URL createURL(Dependency dependency) throws MalformedURLException {
+        if (path != null) {
+            return new URL(repository.getHost() + '/' + path + extension);
+        }
+        return new URL(repository.createURL(dependency) + extension);
+    }
+
+    @Override
+    public URLConnection openConnection(Dependency dependency) throws IOException {
+        URLConnection template = repository.openConnection(dependency);
+        URLConnection connection = createURL(dependency).openConnection();
+        for (Map.Entry<String, List<String>> header : template.getRequestProperties().entrySet()) {
+            for (String value : header.getValue()) {
+                connection.addRequestProperty(header.getKey(), value);
+            }
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        connection.setConnectTimeout(template.getConnectTimeout());
+        connection.setReadTimeout(template.getReadTimeout());
+        return connection;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return repository.getBufferSize();
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.repository;
+
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Resolves {@code -SNAPSHOT} versions to the latest timestamped snapshot using the repository's {@code maven-metadata.xml}.
+ * <p>
+ * The metadata is cached on disk together with its {@code ETag} and {@code Last-Modified} headers,
+ * so checking for a newer snapshot is a conditional request that usually returns {@code 304 Not Modified}.
+ * The hash of the timestamped jar is taken from the repository's {@code .sha1} checksum file, and is only requested
+ * when the snapshot changes. As the resolved dependency's file name includes the timestamp,
+ * {@link dev.vankka.dependencydownload.DependencyManager} only downloads the jar again when the timestamp changes.
+ * Store the directory next to the dependency directory rather than inside it,
+ * as {@link dev.vankka.dependencydownload.DependencyManager#cleanupCacheDirectory()} deletes unknown files.
+ */
+@SuppressWarnings("unused") // API
+public class SnapshotResolver {
+
+    private static final String SNAPSHOT_SUFFIX = "SNAPSHOT";
+    private static final String METADATA_FILE_NAME = "maven-metadata.xml";
+    private static final String STATE_FILE_NAME = "maven-metadata.properties";
+    private static final String CHECKSUM_ALGORITHM = "SHA-1";
+
+    private final Path directory;
+    private volatile DownloadEngine downloadEngine = DownloadEngine.urlConnection();
+
+    /**
+     * Creates a {@link SnapshotResolver}.
+     * @param directory the directory to cache the metadata in
+     */
+    public SnapshotResolver(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the engine used to download the metadata and checksums.
+     * @return the download engine
+     */
+    @NotNull
+    public DownloadEngine getDownloadEngine() {
+        return downloadEngine;
+    }
+
+    /**
+     * Sets the engine used to download the metadata and checksums, defaults to {@link DownloadEngine#urlConnection()}.
+     * @param downloadEngine the download engine
+     * @return this resolver
+     */
+    public SnapshotResolver setDownloadEngine(@NotNull DownloadEngine downloadEngine) {
+        this.downloadEngine = downloadEngine;
+        return this;
+    }
+
+    /**
+     * Resolves the latest timestamped snapshot of the dependency from the first repository that has metadata for it.
+     * Dependencies that are not {@code -SNAPSHOT} versions are returned as-is.
+     *
+     * @param dependency the dependency, which may already be pinned to an older timestamped snapshot
+     * @param repositories the repositories to check, in order
+     * @return the dependency pinned to the latest timestamped snapshot, the provided dependency if it already is the latest
+     * @throws IOException if none of the repositories could resolve the snapshot
+     */
+    @NotNull
+    public MavenDependency resolve(@NotNull MavenDependency dependency, @NotNull List<Repository> repositories) throws IOException {
+        if (!dependency.getVersion().endsWith('-' + SNAPSHOT_SUFFIX)) {
+            return dependency;
+        }
+
+        IOException failure = new IOException("Failed to resolve snapshot for " + dependency.getGAV());
+        for (Repository repository : repositories) {
+            try {
+                return resolve(dependency, repository);
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        throw failure;
+    }
+
+    private MavenDependency resolve(MavenDependency dependency, Repository repository) throws IOException {
+        String versionPath = dependency.getGroupId().replace('.', '/')
+                + '/' + dependency.getArtifactId()
+                + '/' + dependency.getVersion();
+        Path versionDirectory = directory.resolve(getDirectoryName(repository)).resolve(versionPath);
+        Path metadataFile = versionDirectory.resolve(METADATA_FILE_NAME);
+        Path stateFile = versionDirectory.resolve(STATE_FILE_NAME);
+
+        Properties state = PropertiesFiles.load(stateFile);
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (Files.exists(metadataFile)) {
+            String entityTag = state.getProperty("etag");
+            if (entityTag != null) {
+                headers.put("If-None-Match", entityTag);
+            }
+            String lastModified = state.getProperty("lastModified");
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+        }
+
+        Repository metadataRepository = SiblingFileRepository.path(repository, versionPath + '/' + METADATA_FILE_NAME, headers);
+        try (DownloadResponse response = downloadEngine.open(metadataRepository, dependency)) {
+            byte[] metadata = readAll(response.getInputStream(), Integer.MAX_VALUE);
+            write(metadataFile, metadata);
+            setOrRemove(state, "etag", response.getHeader("ETag"));
+            setOrRemove(state, "lastModified", response.getHeader("Last-Modified"));
+        } catch (ResponseCodeException e) {
+            if (e.getResponseCode() != 304 || !Files.exists(metadataFile)) {
+                throw e;
+            }
+            // Not modified, use the cached metadata
+        }
+
+        String classifier = dependency.getClassifier();
+        String snapshotVersion = getSnapshotVersion(metadataFile, dependency.getVersion(), classifier);
+        if (snapshotVersion.equals(dependency.getSnapshotVersion())) {
+            return dependency;
+        }
+
+        String suffix = classifier != null ? "." + classifier : "";
+        String hash = state.getProperty("hash" + suffix);
+        if (!snapshotVersion.equals(state.getProperty("snapshotVersion" + suffix)) || hash == null) {
+            MavenDependency unverified = withSnapshotVersion(dependency, snapshotVersion, "0");
+            Repository checksumRepository = SiblingFileRepository.jarSibling(repository, ".sha1");
+            try (DownloadResponse response = downloadEngine.open(checksumRepository, unverified)) {
+                hash = SiblingFileRepository.readChecksum(response.getInputStream());
+            }
+            if (hash == null) {
+                throw new IOException("Invalid checksum for " + unverified.getMavenPath() + " from " + repository.getHost());
+            }
+            state.setProperty("snapshotVersion" + suffix, snapshotVersion);
+            state.setProperty("hash" + suffix, hash);
+        }
+
+        PropertiesFiles.store(stateFile, state, "DependencyDownload snapshot metadata");
+        return withSnapshotVersion(dependency, snapshotVersion, hash);
+    }
+
+    private static MavenDependency withSnapshotVersion(MavenDependency dependency, String snapshotVersion, String hash) {
+        return new MavenDependency(
+                dependency.getGroupId(),
+                dependency.getArtifactId(),
+                dependency.getVersion(),
+                dependency.getClassifier(),
+                snapshotVersion,
+                hash,
+                CHECKSUM_ALGORITHM
+        );
+    }
+
+    /**
+     * Gets the timestamped version of the jar from the metadata,
+     * from the {@code snapshotVersions} entry for the classifier or the latest {@code snapshot}.
+     */
+    private static String getSnapshotVersion(Path metadataFile, String version, @Nullable String classifier) throws IOException {
+        Document document;
+        try (InputStream inputStream = Files.newInputStream(metadataFile)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            try {
+                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            } catch (ParserConfigurationException ignored) {}
+            factory.setExpandEntityReferences(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            document = builder.parse(inputStream);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Invalid metadata: " + metadataFile, e);
+        }
+
+        NodeList snapshotVersions = document.getElementsByTagName("snapshotVersion");
+        for (int i = 0; i < snapshotVersions.getLength(); i++) {
+            Element snapshotVersion = (Element) snapshotVersions.item(i);
+            String entryClassifier = getText(snapshotVersion, "classifier");
+            if (!"jar".equals(getText(snapshotVersion, "extension"))
+                    || !Objects.equals(classifier, entryClassifier != null && entryClassifier.isEmpty() ? null : entryClassifier)) {
+                continue;
+            }
+            String value = getText(snapshotVersion, "value");
+            if (value != null) {
+                return value;
+            }
+        }
+
+        NodeList snapshots = document.getElementsByTagName("snapshot");
+        if (snapshots.getLength() > 0) {
+            Element snapshot = (Element) snapshots.item(0);
+            String timestamp = getText(snapshot, "timestamp");
+            String buildNumber = getText(snapshot, "buildNumber");
+            if (timestamp != null && buildNumber != null) {
+                return version.substring(0, version.length() - SNAPSHOT_SUFFIX.length()) + timestamp + '-' + buildNumber;
+            }
+        }
+        throw new IOException("No timestamped snapshot in metadata: " + metadataFile);
+    }
+
+    @Nullable
+    private static String getText(Element element, String tagName) {
+        NodeList children = element.getElementsByTagName(tagName);
+        if (children.getLength() == 0) {
+            return null;
+        }
+        return children.item(0).getTextContent().trim();
+    }
+
+    private static void setOrRemove(Properties properties, String key, @Nullable String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        } else {
+            properties.remove(key);
+        }
+    }
+
+    /**
+     * A directory name for the repository that is safe on all file systems.
+     */
+    private static String getDirectoryName(Repository repository) {
+        return repository.getHost().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = PropertiesFiles.getTemporaryPath(file);
+        try {
+            Files.write(temporaryFile, content);
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static byte[] readAll(InputStream inputStream, int limit) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while (outputStream.size() < limit && (read = inputStream.read(buffer, 0, Math.min(buffer.length, limit - outputStream.size()))) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Java 11+ implementation of the Java Flight Recorder events.
+ * <p>
+ * The {@code jdk.jfr} module can be left out of the runtime (jlink images, some OpenJ9 builds),
+ * the events are only loaded if it is present and are disabled otherwise.
+ */
+final class FlightRecorderEvents {
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private FlightRecorderEvents() {}
+
+    static FlightRecorderEvent begin(DependencyManagerStats.Phase phase, Dependency dependency) {
+        return AVAILABLE ? Events.begin(phase, dependency) : FlightRecorderEvent.DISABLED;
+    }
+
+    static FlightRecorderEvent beginHash(Dependency dependency) {
+        return AVAILABLE ? Events.beginHash(dependency) : FlightRecorderEvent.DISABLED;
+    }
+
+    /**
+     * Separate from {@link FlightRecorderEvents} so that the {@code jdk.jfr} classes are only loaded if it is present.
+     */
+    private static final class Events {
+
+        private Events() {}
+
+        static FlightRecorderEvent begin(DependencyManagerStats.Phase phase, Dependency dependency) {
+            switch (phase) {
+                case DOWNLOAD:
+                    return begin(new DownloadEvent(), dependency);
+                case RELOCATE:
+                    return begin(new RelocateEvent(), dependency);
+                case LOAD:
+                    return begin(new LoadEvent(), dependency);
+                default:
+                    throw new IllegalArgumentException("Unknown phase: " + phase);
+            }
+        }
+
+        static FlightRecorderEvent beginHash(Dependency dependency) {
+            return begin(new HashEvent(), dependency);
+        }
+
+        private static FlightRecorderEvent begin(DependencyEvent event, Dependency dependency) {
+            if (!event.isEnabled()) {
+                return FlightRecorderEvent.DISABLED;
+            }
+            event.dependency = dependency.getGAV();
+            event.begin();
+            return event;
+        }
+    }
+
+    @Category("DependencyDownload")
+    abstract static class DependencyEvent extends Event implements FlightRecorderEvent {
+
+        @Label("Dependency")
+        String dependency;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Override
+        public void end(String outcome, @Nullable String repository, long bytes) {
+            this.outcome = outcome;
+            set(repository, bytes);
+            commit();
+        }
+
+        void set(@Nullable String repository, long bytes) {}
+    }
+
+    @Name("dev.vankka.dependencydownload.Download")
+    @Label("Dependency Download")
+    @Description("Downloading a dependency, skipped if it was already downloaded")
+    static final class DownloadEvent extends DependencyEvent {
+
+        @Label("Repository")
+        String repository;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Override
+        void set(@Nullable String repository, long bytes) {
+            this.repository = repository;
+            this.bytes = bytes;
+        }
+    }
+
+    @Name("dev.vankka.dependencydownload.Hash")
+    @Label("Dependency Hash")
+    @Description("Hashing a file of a dependency, partial if the hash is only verified once the download completes")
+    static final class HashEvent extends DependencyEvent {
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Override
+        void set(@Nullable String repository, long bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    @Name("dev.vankka.dependencydownload.Relocate")
+    @Label("Dependency Relocate")
+    @Description("Relocating a dependency, skipped if it was relocated by another thread or process")
+    static final class RelocateEvent extends DependencyEvent {}
+
+    @Name("dev.vankka.dependencydownload.Load")
+    @Label("Dependency Load")
+    @Description("Appending a dependency to the classpath")
+    static final class LoadEvent extends DependencyEvent {}
+}
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link DownloadEngine} using one shared HTTP/2 {@link HttpClient} per repository host.
+ * <p>
+ * The {@link URLConnection} from {@link Repository#openConnection(Dependency)} is used as a template (url, headers and timeouts),
+ * it is never connected unless the repository isn't using http(s) or customizes TLS.
+ * An {@link SSLSocketFactory} or {@link HostnameVerifier} set on the {@link HttpsURLConnection} can't be carried over
+ * to the {@link HttpClient}, so such repositories are downloaded with the connection itself, like {@link URLConnectionDownloadEngine}.
+ */
+final class HttpClientDownloadEngine implements DownloadEngine {
+
+    /**
+     * Headers that are managed by the {@link HttpClient} itself and may not be set on a request.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade"
+    ));
+
+    private static final String DEFAULT_HOSTNAME_VERIFIER = "javax.net.ssl.HttpsURLConnection$DefaultHostnameVerifier";
+
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    HttpClientDownloadEngine() {
+        this(null);
+    }
+
+    /**
+     * @param executor the executor for the {@link HttpClient}s, or {@code null} for their default executor
+     */
+    HttpClientDownloadEngine(@Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public @NotNull DownloadResponse open(
+            @NotNull Repository repository,
+            @NotNull Dependency dependency,
+            long rangeStart,
+            long rangeEnd
+    ) throws IOException {
+        URLConnection connection = repository.openConnection(dependency);
+        if (!(connection instanceof HttpURLConnection) || hasCustomTls(connection)) {
+            return URLConnectionDownloadEngine.open(connection, rangeStart, rangeEnd);
+        }
+
+        URI uri;
+        try {
+            uri = connection.getURL().toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid url: " + connection.getURL(), e);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        for (Map.Entry<String, List<String>> header : connection.getRequestProperties().entrySet()) {
+            String name = header.getKey();
+            if (name == null || RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                request.header(name, value);
+            }
+        }
+        String range = URLConnectionDownloadEngine.rangeHeader(rangeStart, rangeEnd);
+        if (range != null) {
+            request.setHeader("Range", range);
+        }
+        // Only applies until the headers are received, the body is covered by IdleTimeoutInputStream
+        int readTimeout = connection.getReadTimeout();
+        if (readTimeout > 0) {
+            request.timeout(Duration.ofMillis(readTimeout));
+        }
+
+        HttpClient client = clients.computeIfAbsent(
+                uri.getScheme() + "://" + uri.getRawAuthority(),
+                key -> createClient(connection.getConnectTimeout())
+        );
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + uri);
+        }
+
+        int statusCode = response.statusCode();
+        if (statusCode < 200 || statusCode >= 300) {
+            response.body().close();
+            throw new ResponseCodeException(
+                    statusCode,
+                    uri.toString(),
+                    response.headers().firstValue("Retry-After").orElse(null)
+            );
+        }
+        return new Response(response, readTimeout);
+    }
+
+    /**
+     * Checks if the connection verifies the server differently from the JVM defaults that the {@link HttpClient} uses.
+     */
+    private static boolean hasCustomTls(URLConnection connection) {
+        if (!(connection instanceof HttpsURLConnection)) {
+            return false;
+        }
+        HttpsURLConnection httpsConnection = (HttpsURLConnection) connection;
+        if (httpsConnection.getSSLSocketFactory() != SSLSocketFactory.getDefault()) {
+            return true;
+        }
+        // The JDK's own verifier, unless it was replaced with HttpsURLConnection#setDefaultHostnameVerifier
+        return !httpsConnection.getHostnameVerifier().getClass().getName().equals(DEFAULT_HOSTNAME_VERIFIER);
+    }
+
+    private HttpClient createClient(int connectTimeout) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+
+        ProxySelector proxySelector = ProxySelector.getDefault();
+        if (proxySelector != null) {
+            builder.proxy(proxySelector);
+        }
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+
+    private static class Response implements DownloadResponse {
+
+        private final HttpResponse<InputStream> response;
+        private final InputStream inputStream;
+
+        private Response(HttpResponse<InputStream> response, int readTimeout) {
+            this.response = response;
+            this.inputStream = readTimeout > 0
+                               ? new IdleTimeoutInputStream(response.body(), readTimeout)
+                               : response.body();
+        }
+
+        @Override
+        public int getResponseCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public long getContentLength() {
+            return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        }
+
+        @Override
+        public @Nullable String getHeader(@NotNull String name) {
+            return response.headers().firstValue(name).orElse(null);
+        }
+
+        @Override
+        public @NotNull InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload.download;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fails a read that makes no progress within the read timeout, like {@link java.net.URLConnection#setReadTimeout(int)}.
+ * The {@link java.net.http.HttpClient}'s request timeout only applies until the response headers are received.
+ * <p>
+ * Reads only record when they started, a single watchdog task per stream checks the running read and reschedules itself.
+ * A stalled read is interrupted by closing the underlying stream.
+ */
+final class IdleTimeoutInputStream extends FilterInputStream {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    static {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "DependencyDownload Read Timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setKeepAliveTime(30L, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        scheduler.setRemoveOnCancelPolicy(true);
+        SCHEDULER = scheduler;
+    }
+
+    private final long timeoutNanos;
+    private volatile long readStart;
+    private volatile boolean reading = false;
+    private volatile boolean timedOut = false;
+    private boolean closed = false;
+    private volatile ScheduledFuture<?> watchdog;
+
+    /**
+     * @param inputStream the stream to read from
+     * @param timeout the read timeout in milliseconds
+     */
+    IdleTimeoutInputStream(InputStream inputStream, long timeout) {
+        super(inputStream);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    @Override
+    public int read() throws IOException {
+        beginRead();
+        try {
+            return super.read();
+        } catch (IOException e) {
+            throw timedOut ? timeoutException(e) : e;
+        } finally {
+            reading = false;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        beginRead();
+        try {
+            return super.read(b, off, len);
+        } catch (IOException e) {
+            throw timedOut ? timeoutException(e) : e;
+        } finally {
+            reading = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+        super.close();
+    }
+
+    private void beginRead() throws IOException {
+        if (timedOut) {
+            throw new SocketTimeoutException("Read timed out");
+        }
+        readStart = System.nanoTime();
+        reading = true;
+        if (watchdog == null) {
+            schedule(timeoutNanos);
+        }
+    }
+
+    private synchronized void schedule(long delayNanos) {
+        if (!closed) {
+            watchdog = SCHEDULER.schedule(this::check, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void check() {
+        if (!reading) {
+            // A read starting after this is noticed by the next check, at most twice the timeout later
+            schedule(timeoutNanos);
+            return;
+        }
+
+        long elapsed = System.nanoTime() - readStart;
+        if (elapsed < timeoutNanos) {
+            schedule(timeoutNanos - elapsed);
+            return;
+        }
+        timedOut = true;
+        try {
+            in.close();
+        } catch (IOException ignored) {}
+    }
+
+    private static SocketTimeoutException timeoutException(IOException cause) {
+        SocketTimeoutException exception = new SocketTimeoutException("Read timed out");
+        exception.initCause(cause);
+        return exception;
+    }
+}
@@ -54,4 +54,10 @@ public class ApplicationDependencyManagerTest {
         assertEquals(1, manager.include(Collections.singleton(FAKE_DEPENDENCY_1)).getDependencies().size());
         assertEquals(1, manager.include(Collections.singleton(FAKE_DEPENDENCY_2)).getDependencies().size());
     }
+
+    @Test
+    public void verifyExistingFilesTest() {
+        ApplicationDependencyManager manager = new ApplicationDependencyManager(PATH_PROVIDER).setVerifyExistingFiles(false);
+        assertFalse(manager.include(Collections.singleton(FAKE_DEPENDENCY_1)).isVerifyExistingFiles());
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.common.util.BundleFormat;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BundleRepositoryTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-bundle"));
+
+    @Test
+    public void bundleTest() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Map<Dependency, byte[]> bundled = new LinkedHashMap<>();
+            for (int i = 0; i < 3; i++) {
+                byte[] content = TestRepositoryServer.randomBytes(10_000 + i);
+                bundled.put(server.addFile("bundled" + i, content), content);
+            }
+            byte[] missingContent = TestRepositoryServer.randomBytes(5_000);
+            Dependency missing = server.addFile("not-bundled", missingContent);
+            server.putFile("/bundle.zip", createBundle(bundled, null));
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.addDependencies(bundled.keySet());
+            dependencyManager.addDependencies(missing);
+            for (Dependency dependency : dependencyManager.getDependencies()) {
+                Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            }
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(
+                    executorService,
+                    Arrays.asList(server.getBundleRepository("/bundle.zip"), server.getRepository())
+            );
+            future.join();
+
+            for (Map.Entry<Dependency, byte[]> entry : bundled.entrySet()) {
+                Dependency dependency = entry.getKey();
+                assertArrayEquals(entry.getValue(), Files.readAllBytes(dependencyManager.getPathForDependency(dependency, false)));
+                assertFalse(server.getRequests().contains("/" + ((MavenDependency) dependency).getMavenPath()), "bundled dependency not requested");
+            }
+            assertArrayEquals(missingContent, Files.readAllBytes(dependencyManager.getPathForDependency(missing, false)));
+            assertEquals(1, server.getRequests().stream().filter("/bundle.zip"::equals).count(), "bundle requested once");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void corruptedEntryTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            byte[] content = TestRepositoryServer.randomBytes(8_000);
+            Dependency dependency = server.addFile("bundled-corrupted", content);
+            server.putFile("/corrupted.zip", createBundle(
+                    Collections.singletonMap(dependency, content),
+                    TestRepositoryServer.randomBytes(8_001)
+            ));
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            dependencyManager.downloadAll(null, Arrays.asList(server.getBundleRepository("/corrupted.zip"), server.getRepository())).join();
+
+            assertArrayEquals(content, Files.readAllBytes(dependencyManager.getPathForDependency(dependency, false)));
+            assertTrue(server.getRequests().contains("/" + ((MavenDependency) dependency).getMavenPath()), "fell back to the repository");
+        }
+    }
+
+    /**
+     * @param replacement content to bundle in place of the real content of the dependencies, or {@code null}
+     */
+    private byte[] createBundle(Map<Dependency, byte[]> dependencies, byte[] replacement) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            StringBuilder index = new StringBuilder();
+            for (Dependency dependency : dependencies.keySet()) {
+                index.append(((MavenDependency) dependency).getMavenPath())
+                        .append(' ').append(dependency.getHashingAlgorithm())
+                        .append(' ').append(dependency.getHash())
+                        .append('\n');
+            }
+            writeEntry(zipOutputStream, BundleFormat.INDEX_ENTRY, index.toString().getBytes(StandardCharsets.UTF_8));
+
+            for (Map.Entry<Dependency, byte[]> entry : dependencies.entrySet()) {
+                byte[] content = replacement != null ? replacement : entry.getValue();
+                writeEntry(zipOutputStream, ((MavenDependency) entry.getKey()).getMavenPath(), content);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void writeEntry(ZipOutputStream zipOutputStream, String name, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zipOutputStream.putNextEntry(entry);
+        zipOutputStream.write(content);
+        zipOutputStream.closeEntry();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheDirectoryTest {
+
+    private static final Path DIRECTORY = Paths.get("build", "integration-test-cache");
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(DIRECTORY);
+
+    @Test
+    public void failedDownloadNotPublishedTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency served = server.addFile("mismatch", TestRepositoryServer.randomBytes(10_000));
+            Dependency dependency = new MavenDependency(
+                    served.getGroupId(),
+                    served.getArtifactId(),
+                    served.getVersion(),
+                    null,
+                    TestRepositoryServer.hash(new byte[0]),
+                    "SHA-256"
+            );
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.addDependencies(dependency);
+
+            Path path = dependencyManager.getPathForDependency(dependency, false);
+            Files.deleteIfExists(path);
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+            assertTrue(future.isCompletedExceptionally(), "download failed");
+            assertFalse(Files.exists(path), "nothing published");
+            try (Stream<Path> files = Files.list(path.getParent())) {
+                assertFalse(files.anyMatch(file -> file.getFileName().toString().endsWith(".tmp")), "no temporary files left");
+            }
+        }
+    }
+
+    @Test
+    public void unverifiedExistingFileTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("existing", TestRepositoryServer.randomBytes(10_000));
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setVerifyExistingFiles(false);
+            dependencyManager.addDependencies(dependency);
+
+            Path path = dependencyManager.getPathForDependency(dependency, false);
+            Files.createDirectories(path.getParent());
+            Files.write(path, new byte[] {1, 2, 3});
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+            assertFalse(future.isCompletedExceptionally(), "download did not fail");
+            assertTrue(server.getRequests().isEmpty(), "existing file was used without being hashed");
+        }
+    }
+
+    @Test
+    public void concurrentDownloadReusedTest() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            server.setResponseDelay(300);
+            Dependency dependency = server.addFile("shared", TestRepositoryServer.randomBytes(10_000));
+
+            CompletableFuture<?>[] futures = new CompletableFuture[2];
+            for (int i = 0; i < futures.length; i++) {
+                DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+                dependencyManager.addDependencies(dependency);
+                if (i == 0) {
+                    Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+                }
+
+                futures[i] = dependencyManager.downloadAll(executorService, Collections.singletonList(server.getRepository()));
+            }
+            CompletableFuture.allOf(futures).join();
+
+            assertEquals(1, server.getRequests().size(), "downloaded once, reused by the other manager");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void contentAddressableTest() throws IOException {
+        Path directory = Paths.get("build", "integration-test-content-addressable");
+        DependencyPathProvider pathProvider = DependencyPathProvider.contentAddressable(directory);
+
+        byte[] content = TestRepositoryServer.randomBytes(10_000);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency first = server.addFile("first", content);
+            Dependency second = server.addFile("second", content);
+
+            DependencyManager dependencyManager = new DependencyManager(pathProvider);
+            dependencyManager.addDependencies(first, second);
+
+            Path storagePath = pathProvider.getStoragePath(first);
+            Files.deleteIfExists(storagePath);
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+            assertFalse(future.isCompletedExceptionally(), "download did not fail");
+            assertEquals(1, server.getRequests().size(), "downloaded once");
+
+            Path firstPath = dependencyManager.getPathForDependency(first, false);
+            Path secondPath = dependencyManager.getPathForDependency(second, false);
+            assertTrue(Files.isSameFile(storagePath, firstPath), "first is linked to the stored file");
+            assertTrue(Files.isSameFile(storagePath, secondPath), "second is linked to the stored file");
+
+            dependencyManager.cleanupCacheDirectory();
+            assertTrue(Files.exists(storagePath), "stored file was not cleaned up");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyExecutorsTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-executors"));
+
+    @Test
+    public void virtualThreadsSupportTest() {
+        String version = System.getProperty("java.specification.version");
+        int feature = Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+        assertEquals(feature >= 21, DependencyExecutors.isVirtualThreadsSupported());
+        if (feature < 21) {
+            assertSame(DependencyExecutors.boundedPool(), DependencyExecutors.virtualThreads());
+        }
+    }
+
+    @Test
+    public void downloadTest() throws IOException {
+        Executor executor = DependencyExecutors.virtualThreads();
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            List<Dependency> dependencies = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                dependencies.add(server.addFile("executor" + i, TestRepositoryServer.randomBytes(1_000)));
+            }
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER).addDependencies(dependencies);
+            for (Dependency dependency : dependencies) {
+                Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            }
+            dependencyManager.downloadAll(executor, Collections.singletonList(server.getRepository())).join();
+
+            for (Dependency dependency : dependencies) {
+                assertTrue(Files.exists(dependencyManager.getPathForDependency(dependency, false)));
+            }
+        }
+    }
+}
@@ -24,11 +24,24 @@
 
 package dev.vankka.dependencydownload;
 
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.DownloadEngine;
+import dev.vankka.dependencydownload.download.DownloadResponse;
+import dev.vankka.dependencydownload.repository.MavenRepository;
+import dev.vankka.dependencydownload.repository.Repository;
 import org.junit.jupiter.api.Test;
 
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -154,4 +167,132 @@ public class DependencyMangerTest {
             fail("Interrupted", e);
         }
     }
+
+    @Test
+    public void httpClientDownloadTest() throws IOException {
+        DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER_FOR_ENGINE);
+        dependencyManager.setDownloadEngine(DownloadEngine.httpClient());
+        dependencyManager.addDependencies(REAL_DEPENDENCY);
+        Files.deleteIfExists(dependencyManager.getPathForDependency(REAL_DEPENDENCY, false));
+
+        CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(REAL_REPOSITORY));
+        assertTrue(future.isDone(), "download future is done");
+        assertFalse(future.isCompletedExceptionally(), "download did not fail");
+        assertTrue(Files.exists(dependencyManager.getPathForDependency(REAL_DEPENDENCY, false)), "file exists after download");
+        assertThrows(IllegalStateException.class, () -> dependencyManager.setDownloadEngine(DownloadEngine.urlConnection()));
+        if (isHttpClientAvailable()) {
+            assertEquals("HttpClientDownloadEngine", dependencyManager.getDownloadEngine().getClass().getSimpleName(), "HttpClient engine is used");
+        }
+    }
+
+    @Test
+    public void httpClientReadTimeoutTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("stall", TestRepositoryServer.randomBytes(10_000));
+            Repository repository = new MavenRepository("http://" + server.getAddress()) {
+                @Override
+                public URLConnection openConnection(Dependency dependency) throws IOException {
+                    URLConnection connection = createURL(dependency).openConnection();
+                    connection.setReadTimeout(200);
+                    return connection;
+                }
+            };
+            server.setStallAfter(1_000);
+
+            try (DownloadResponse response = DownloadEngine.httpClient().open(repository, dependency)) {
+                InputStream inputStream = response.getInputStream();
+                byte[] buffer = new byte[1024];
+                assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(SocketTimeoutException.class, () -> {
+                    while (inputStream.read(buffer) != -1) {
+                        // Read until the stall
+                    }
+                }), "stalled body times out");
+            }
+        }
+    }
+
+    @Test
+    public void httpClientCustomTlsTest() throws IOException {
+        AtomicInteger sockets = new AtomicInteger();
+        SSLSocketFactory socketFactory = new CountingSocketFactory((SSLSocketFactory) SSLSocketFactory.getDefault(), sockets);
+        Repository repository = new MavenRepository("https://repo1.maven.org/maven2") {
+            @Override
+            public URLConnection openConnection(Dependency dependency) throws IOException {
+                URLConnection connection = super.openConnection(dependency);
+                ((HttpsURLConnection) connection).setSSLSocketFactory(socketFactory);
+                return connection;
+            }
+        };
+
+        try (DownloadResponse response = DownloadEngine.httpClient().open(repository, REAL_DEPENDENCY)) {
+            assertEquals(200, response.getResponseCode());
+        }
+        assertTrue(sockets.get() > 0, "the repository's socket factory was used");
+    }
+
+    private static class CountingSocketFactory extends SSLSocketFactory {
+
+        private final SSLSocketFactory delegate;
+        private final AtomicInteger sockets;
+
+        private CountingSocketFactory(SSLSocketFactory delegate, AtomicInteger sockets) {
+            this.delegate = delegate;
+            this.sockets = sockets;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            sockets.incrementAndGet();
+            return delegate.createSocket();
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+            sockets.incrementAndGet();
+            return delegate.createSocket(socket, host, port, autoClose);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            sockets.incrementAndGet();
+            return delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            sockets.incrementAndGet();
+            return delegate.createSocket(host, port, localHost, localPort);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            sockets.incrementAndGet();
+            return delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            sockets.incrementAndGet();
+            return delegate.createSocket(address, port, localAddress, localPort);
+        }
+    }
+
+    private static boolean isHttpClientAvailable() {
+        try {
+            Class.forName("java.net.http.HttpClient");
+            return true;
+        } catch (ClassNotFoundException ignored) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.BandwidthLimiter;
+import dev.vankka.dependencydownload.download.ConcurrencyLimiter;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DownloadLimitsTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-limits"));
+
+    @Test
+    public void sharedBandwidthLimitTest() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            BandwidthLimiter limiter = new BandwidthLimiter(100_000);
+
+            CompletableFuture<?>[] futures = new CompletableFuture[2];
+            long start = System.nanoTime();
+            for (int i = 0; i < futures.length; i++) {
+                Dependency dependency = server.addFile("bandwidth" + i, TestRepositoryServer.randomBytes(100_000));
+
+                DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+                dependencyManager.setBandwidthLimiter(limiter);
+                dependencyManager.addDependencies(dependency);
+                Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+                futures[i] = dependencyManager.downloadAll(executorService, Collections.singletonList(server.getRepository()));
+            }
+            CompletableFuture.allOf(futures).join();
+            long time = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            // One second of burst, then 100KB more at 100KB/s
+            assertTrue(time >= 900, "both downloads were limited together (" + time + "ms)");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrencyLimitTest() throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            server.setResponseDelay(100);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setConcurrencyLimiter(new ConcurrencyLimiter(2));
+            for (int i = 0; i < 8; i++) {
+                Dependency dependency = server.addFile("concurrency" + i, TestRepositoryServer.randomBytes(1_000 + i));
+                dependencyManager.addDependencies(dependency);
+                Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            }
+
+            dependencyManager.downloadAll(executorService, Collections.singletonList(server.getRepository())).join();
+
+            assertEquals(8, server.getRequests().size(), "all dependencies were downloaded");
+            assertEquals(2, server.getMaxConcurrentRequests(), "requests were limited");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.BandwidthLimiter;
+import dev.vankka.dependencydownload.download.DownloadProgress;
+import dev.vankka.dependencydownload.logger.Logger;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DownloadProgressTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-progress"));
+
+    @Test
+    public void progressTest() throws IOException {
+        List<DownloadProgress> updates = new CopyOnWriteArrayList<>();
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER, new Logger() {
+                @Override
+                public void downloadProgress(DownloadProgress progress) {
+                    updates.add(progress);
+                }
+            });
+            dependencyManager.setProgressInterval(Duration.ofMillis(50));
+            dependencyManager.setBandwidthLimiter(new BandwidthLimiter(200_000));
+
+            for (int i = 0; i < 2; i++) {
+                Dependency dependency = server.addFile("progress" + i, TestRepositoryServer.randomBytes(150_000 + i));
+                dependencyManager.addDependencies(dependency);
+                Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            }
+
+            dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository())).join();
+        }
+
+        assertFalse(updates.isEmpty(), "progress was reported");
+        long previousTotal = 0;
+        for (DownloadProgress progress : updates) {
+            assertEquals(150_000 + (progress.getDependency().getArtifactId().endsWith("1") ? 1 : 0), progress.getContentLength());
+            assertTrue(progress.getBytes() <= progress.getContentLength(), "bytes within content length");
+            assertTrue(progress.getTotalBytes() >= previousTotal, "total bytes only increase");
+            assertEquals(2, progress.getTotalDependencies());
+            previousTotal = progress.getTotalBytes();
+        }
+
+        DownloadProgress last = updates.get(updates.size() - 1);
+        assertTrue(last.getAverageThroughput() > 0, "throughput is measured");
+        assertNotNull(last.getEstimatedTimeRemaining(), "time remaining is estimated");
+    }
+
+    @Test
+    public void disabledProgressTest() throws IOException {
+        List<DownloadProgress> updates = new CopyOnWriteArrayList<>();
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER, new Logger() {
+                @Override
+                public void downloadProgress(DownloadProgress progress) {
+                    updates.add(progress);
+                }
+            });
+            dependencyManager.setProgressInterval(null);
+            dependencyManager.setBandwidthLimiter(new BandwidthLimiter(100_000));
+
+            Dependency dependency = server.addFile("progress-disabled", TestRepositoryServer.randomBytes(150_000));
+            dependencyManager.addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository())).join();
+        }
+        assertTrue(updates.isEmpty(), "progress was not reported");
+    }
+}
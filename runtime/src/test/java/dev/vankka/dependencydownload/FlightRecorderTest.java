@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderTest {
+
+    private static final Path DIRECTORY = Paths.get("build", "integration-test-jfr");
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(DIRECTORY);
+
+    @Test
+    public void eventsTest() throws IOException {
+        List<RecordedEvent> events;
+        try (TestRepositoryServer server = new TestRepositoryServer(); Recording recording = new Recording()) {
+            recording.enable("dev.vankka.dependencydownload.Download");
+            recording.enable("dev.vankka.dependencydownload.Hash");
+            recording.enable("dev.vankka.dependencydownload.Load");
+            recording.start();
+
+            Dependency dependency = server.addFile("jfr", TestRepositoryServer.randomBytes(5_000));
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER).addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository())).join();
+            dependencyManager.loadAll(null, path -> {}).join();
+
+            // Verifies the file downloaded above
+            new DependencyManager(PATH_PROVIDER).addDependencies(dependency)
+                    .downloadAll(null, Collections.singletonList(server.getRepository())).join();
+
+            recording.stop();
+            Path file = DIRECTORY.resolve("recording.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> downloads = events(events, "dev.vankka.dependencydownload.Download");
+        assertEquals(2, downloads.size());
+        RecordedEvent download = downloads.get(0);
+        assertEquals("test:jfr:1.0.0", download.getString("dependency"));
+        assertEquals("completed", download.getString("outcome"));
+        assertEquals(5_000, download.getLong("bytes"));
+        assertNotNull(download.getString("repository"));
+        assertEquals("skipped", downloads.get(1).getString("outcome"));
+
+        List<RecordedEvent> hashes = events(events, "dev.vankka.dependencydownload.Hash");
+        assertEquals(1, hashes.size());
+        assertEquals(FlightRecorderEvent.VERIFIED, hashes.get(0).getString("outcome"));
+
+        List<RecordedEvent> loads = events(events, "dev.vankka.dependencydownload.Load");
+        assertEquals(1, loads.size());
+        assertEquals("completed", loads.get(0).getString("outcome"));
+    }
+
+    @Test
+    public void segmentedHashTest() throws IOException {
+        List<RecordedEvent> events;
+        try (TestRepositoryServer server = new TestRepositoryServer(); Recording recording = new Recording()) {
+            recording.enable("dev.vankka.dependencydownload.Hash");
+            recording.start();
+
+            Dependency dependency = server.addFile("jfr-segmented", TestRepositoryServer.randomBytes(1_000_003));
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER).addDependencies(dependency);
+            dependencyManager.setSegmentedDownloads(4, 0);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository())).join();
+
+            recording.stop();
+            Path file = DIRECTORY.resolve("recording-segmented.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        // The whole file is hashed once the segments are written
+        List<RecordedEvent> hashes = events(events, "dev.vankka.dependencydownload.Hash");
+        assertEquals(1, hashes.size());
+        assertEquals(FlightRecorderEvent.VERIFIED, hashes.get(0).getString("outcome"));
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
@@ -41,6 +41,7 @@ public final class Helpers {
 
     public static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test"));
     public static final DependencyPathProvider PATH_PROVIDER_FOR_CLEANUP = DependencyPathProvider.directory(Paths.get("build", "integration-test-cleanup"));
+    public static final DependencyPathProvider PATH_PROVIDER_FOR_ENGINE = DependencyPathProvider.directory(Paths.get("build", "integration-test-engine"));
 
     public static final Dependency FAKE_DEPENDENCY_1 = new MavenDependency("a", "a-a", "", "", "", "SHA-256");
     public static final Dependency FAKE_DEPENDENCY_2 = new MavenDependency("b", "b-a", "", "", "", "SHA-256");
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.DependencyManagerStats.Phase;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.listener.DependencyListener;
+import dev.vankka.dependencydownload.logger.Logger;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListenerTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-listener"));
+
+    @Test
+    public void listenerTest() throws IOException {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        DependencyListener listener = new DependencyListener() {
+            @Override
+            public void phaseCompleted(@NotNull Phase phase, @NotNull Dependency dependency, @NotNull Outcome outcome, @NotNull Duration time) {
+                calls.add(phase + " " + outcome);
+            }
+
+            @Override
+            public void repositoryRequest(@NotNull Dependency dependency, @NotNull Repository repository, @Nullable Throwable failure, long bytes, @NotNull Duration time) {
+                calls.add("request " + (failure == null ? bytes : "failed"));
+            }
+        };
+
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("listener", TestRepositoryServer.randomBytes(1_000));
+            Repository repository = server.getRepository();
+
+            ApplicationDependencyManager applicationManager = new ApplicationDependencyManager(PATH_PROVIDER).addListeners(listener);
+            DependencyManager dependencyManager = applicationManager.include(Collections.singletonList(dependency));
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            server.failNextRequests(1, 404, null);
+            dependencyManager.downloadAll(null, Arrays.asList(repository, repository)).join();
+            dependencyManager.loadAll(null, path -> {}).join();
+        }
+
+        assertEquals(Arrays.asList("request failed", "request 1000", "DOWNLOAD COMPLETED", "LOAD COMPLETED"), calls);
+    }
+
+    @Test
+    public void throwingListenerTest() throws IOException {
+        List<Throwable> logged = new CopyOnWriteArrayList<>();
+        Logger logger = new Logger() {
+            @Override
+            public void listenerFailed(DependencyListener listener, Throwable throwable) {
+                logged.add(throwable);
+            }
+        };
+        DependencyListener listener = new DependencyListener() {
+            @Override
+            public void phaseStarted(@NotNull Phase phase, @NotNull Dependency dependency, @NotNull Duration queued) {
+                throw new IllegalStateException("listener failure");
+            }
+
+            @Override
+            public void phaseCompleted(@NotNull Phase phase, @NotNull Dependency dependency, @NotNull Outcome outcome, @NotNull Duration time) {
+                throw new IllegalStateException("listener failure");
+            }
+        };
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("listener-throwing", TestRepositoryServer.randomBytes(1_000));
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER, logger).addListeners(listener);
+            dependencyManager.addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            assertTimeoutPreemptively(
+                    Duration.ofSeconds(10),
+                    () -> dependencyManager.downloadAll(executorService, Collections.singletonList(server.getRepository())).join()
+            );
+            assertTrue(Files.exists(dependencyManager.getPathForDependency(dependency, false)));
+            assertEquals(2, logged.size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
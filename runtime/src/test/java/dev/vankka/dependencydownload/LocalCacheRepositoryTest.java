@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.LocalCacheRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalCacheRepositoryTest {
+
+    private static final Path DIRECTORY = Paths.get("build", "integration-test-local");
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(DIRECTORY.resolve("cache"));
+
+    @Test
+    public void mavenLocalTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(10_000);
+        MavenDependency dependency = dependency("maven-local", content);
+
+        Path repositoryDirectory = DIRECTORY.resolve("m2");
+        Path file = repositoryDirectory.resolve(dependency.getMavenPath());
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+
+        assertDownloaded(dependency, new LocalCacheRepository(repositoryDirectory, LocalCacheRepository.Layout.MAVEN), content);
+    }
+
+    @Test
+    public void gradleCacheTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(10_000);
+        MavenDependency dependency = dependency("gradle-cache", content);
+
+        Path repositoryDirectory = DIRECTORY.resolve("gradle");
+        Path versionDirectory = repositoryDirectory
+                .resolve(dependency.getGroupId())
+                .resolve(dependency.getArtifactId())
+                .resolve(dependency.getVersion());
+        Path otherFile = versionDirectory.resolve("0000").resolve(dependency.getFileName());
+        Files.createDirectories(otherFile.getParent());
+        Files.write(otherFile, new byte[] {1, 2, 3});
+        Path file = versionDirectory.resolve("1111").resolve(dependency.getFileName());
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+
+        assertDownloaded(dependency, new LocalCacheRepository(repositoryDirectory, LocalCacheRepository.Layout.GRADLE), content);
+    }
+
+    private MavenDependency dependency(String artifactId, byte[] content) {
+        return new MavenDependency("test.local", artifactId, "1.0.0", null, TestRepositoryServer.hash(content), "SHA-256");
+    }
+
+    private void assertDownloaded(MavenDependency dependency, LocalCacheRepository repository, byte[] content) throws IOException {
+        DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+        dependencyManager.addDependencies(dependency);
+
+        Path path = dependencyManager.getPathForDependency(dependency, false);
+        Files.deleteIfExists(path);
+
+        CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(repository));
+        assertFalse(future.isCompletedExceptionally(), "download did not fail");
+        assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+    }
+}
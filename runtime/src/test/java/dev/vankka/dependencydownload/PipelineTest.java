@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-pipeline"));
+
+    @Test
+    public void pipelineTest() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            server.setResponseDelay(50);
+            List<Dependency> dependencies = Arrays.asList(
+                    server.addFile("pipeline-1", TestRepositoryServer.randomBytes(1_000)),
+                    server.addFile("pipeline-2", TestRepositoryServer.randomBytes(2_000)),
+                    server.addFile("pipeline-3", TestRepositoryServer.randomBytes(3_000))
+            );
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER).addDependencies(dependencies);
+            for (Dependency dependency : dependencies) {
+                Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+            }
+
+            List<Path> loaded = new CopyOnWriteArrayList<>();
+            AtomicBoolean appending = new AtomicBoolean(false);
+            dependencyManager.downloadRelocateAndLoadAll(executor, Collections.singletonList(server.getRepository()), path -> {
+                assertTrue(appending.compareAndSet(false, true), "one dependency appended at a time");
+                loaded.add(path);
+                appending.set(false);
+            }).join();
+
+            assertTrue(dependencyManager.isLoaded(), "dependencies are loaded");
+            assertTrue(server.getMaxConcurrentRequests() > 1, "downloads ran concurrently");
+            assertEquals(Arrays.asList(
+                    dependencyManager.getPathForDependency(dependencies.get(0), false),
+                    dependencyManager.getPathForDependency(dependencies.get(1), false),
+                    dependencyManager.getPathForDependency(dependencies.get(2), false)
+            ), loaded, "loaded in dependency order");
+            assertThrows(IllegalStateException.class, () -> dependencyManager.downloadAll(executor, Collections.singletonList(server.getRepository())));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void failureTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency available = server.addFile("pipeline-available", TestRepositoryServer.randomBytes(1_000));
+            Dependency missing = new MavenDependency("test", "pipeline-missing", "1.0.0", null, "00", "SHA-256");
+            Repository repository = server.getRepository();
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER).addDependencies(available, missing);
+            List<Path> loaded = new CopyOnWriteArrayList<>();
+            CompletableFuture<Void> future = dependencyManager.downloadRelocateAndLoadAll(null, Collections.singletonList(repository), loaded::add);
+
+            CompletionException exception = assertThrows(CompletionException.class, future::join);
+            assertEquals("Failed to download dependency " + missing.getGAV(), exception.getCause().getMessage());
+            assertEquals(Collections.singletonList(dependencyManager.getPathForDependency(available, false)), loaded);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.AdaptiveRepositorySelector;
+import dev.vankka.dependencydownload.repository.MavenRepository;
+import dev.vankka.dependencydownload.repository.MissingArtifactCache;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static dev.vankka.dependencydownload.Helpers.FAKE_DEPENDENCY_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepositorySelectionTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-selection"));
+
+    @Test
+    public void hedgingTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(10_000);
+        try (TestRepositoryServer slowServer = new TestRepositoryServer(); TestRepositoryServer fastServer = new TestRepositoryServer()) {
+            slowServer.setResponseDelay(5_000);
+            Dependency dependency = slowServer.addFile("hedging", content);
+            fastServer.addFile("hedging", content);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setHedgingDelay(Duration.ofMillis(100));
+            dependencyManager.addDependencies(dependency);
+
+            Path path = dependencyManager.getPathForDependency(dependency, false);
+            Files.deleteIfExists(path);
+
+            long start = System.nanoTime();
+            CompletableFuture<Void> future = dependencyManager.downloadAll(
+                    null,
+                    Arrays.asList(slowServer.getRepository(), fastServer.getRepository())
+            );
+            long time = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            assertFalse(future.isCompletedExceptionally(), "download did not fail");
+            assertEquals(1, slowServer.getRequests().size(), "slow repository was tried first");
+            assertEquals(1, fastServer.getRequests().size(), "fast repository was hedged");
+            assertTrue(time < 5_000, "did not wait for the slow repository (" + time + "ms)");
+            assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+        }
+    }
+
+    @Test
+    public void adaptiveSelectorTest() throws IOException {
+        Path statsFile = Paths.get("build", "integration-test-selection-stats.properties");
+        Files.deleteIfExists(statsFile);
+
+        Repository failing = new MavenRepository("https://failing.example.com");
+        Repository slow = new MavenRepository("https://slow.example.com");
+        Repository fast = new MavenRepository("https://fast.example.com");
+        Repository unknown = new MavenRepository("https://unknown.example.com");
+        Repository mirror = new MavenRepository("https://mirror.example.com");
+        List<Repository> repositories = Arrays.asList(failing, unknown, slow, fast);
+
+        AdaptiveRepositorySelector selector = new AdaptiveRepositorySelector(statsFile);
+        assertEquals(repositories, selector.select(FAKE_DEPENDENCY_1, repositories), "no statistics, provided order");
+
+        for (int i = 0; i < 5; i++) {
+            selector.recordFailure(failing, FAKE_DEPENDENCY_1, new IOException());
+            selector.recordSuccess(slow, FAKE_DEPENDENCY_1, 500_000_000L, 1024, 100_000_000L);
+            selector.recordSuccess(fast, FAKE_DEPENDENCY_1, 10_000_000L, 1024, 1_000_000L);
+            selector.recordFailure(mirror, FAKE_DEPENDENCY_1, new ResponseCodeException(404, "https://mirror.example.com"));
+        }
+        selector.recordSuccess(mirror, FAKE_DEPENDENCY_1, 10_000_000L, 1024, 1_000_000L);
+
+        List<Repository> expected = Arrays.asList(fast, slow, unknown, failing);
+        assertEquals(expected, selector.select(FAKE_DEPENDENCY_1, repositories), "ordered by statistics");
+        assertFalse(Files.exists(statsFile), "statistics are not written for every download");
+        assertEquals(mirror, selector.select(FAKE_DEPENDENCY_1, Arrays.asList(slow, mirror)).get(0), "missing artifacts are not failures");
+
+        selector.flush();
+        assertEquals(expected, new AdaptiveRepositorySelector(statsFile).select(FAKE_DEPENDENCY_1, repositories), "statistics persisted");
+    }
+
+    @Test
+    public void missingArtifactCacheTest() throws IOException {
+        Path cacheFile = Paths.get("build", "integration-test-selection-missing.properties");
+        Files.deleteIfExists(cacheFile);
+
+        byte[] content = TestRepositoryServer.randomBytes(10_000);
+        try (TestRepositoryServer emptyServer = new TestRepositoryServer(); TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("missing", content);
+            List<Repository> repositories = Arrays.asList(emptyServer.getRepository(), server.getRepository());
+
+            for (int i = 0; i < 2; i++) {
+                DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+                // New cache every time to load from the file
+                dependencyManager.setMissingArtifactCache(new MissingArtifactCache(cacheFile, Duration.ofHours(1)));
+                dependencyManager.addDependencies(dependency);
+
+                Path path = dependencyManager.getPathForDependency(dependency, false);
+                Files.deleteIfExists(path);
+
+                CompletableFuture<Void> future = dependencyManager.downloadAll(null, repositories);
+                assertFalse(future.isCompletedExceptionally(), "download did not fail");
+                assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+            }
+
+            assertEquals(1, emptyServer.getRequests().size(), "repository without the dependency was asked once");
+            assertEquals(2, server.getRequests().size(), "repository with the dependency was asked every time");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.common.util.HashUtil;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResumableDownloadTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-resume"));
+
+    @Test
+    public void resumeTest() throws IOException, NoSuchAlgorithmException {
+        byte[] content = TestRepositoryServer.randomBytes(100_000);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("resume", content);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setResumableDownloads(true);
+            dependencyManager.addDependencies(dependency);
+
+            Path path = dependencyManager.getPathForDependency(dependency, false);
+            Path partialPath = path.resolveSibling(path.getFileName() + ".part");
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(path);
+            Files.write(partialPath, Arrays.copyOf(content, 40_000));
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+            assertFalse(future.isCompletedExceptionally(), "download did not fail");
+            assertEquals(Collections.singletonList("bytes=40000-"), server.getRanges(), "resumed from the partial file");
+            assertFalse(Files.exists(partialPath), "partial file was moved");
+            assertEquals(dependency.getHash(), HashUtil.getFileHash(path, MessageDigest.getInstance("SHA-256")), "hash matches");
+        }
+    }
+
+    @Test
+    public void resumeLongerPartialTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(10_000);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("resume-longer", content);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setResumableDownloads(true);
+            dependencyManager.addDependencies(dependency);
+
+            Path path = dependencyManager.getPathForDependency(dependency, false);
+            Path partialPath = path.resolveSibling(path.getFileName() + ".part");
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(path);
+            Files.write(partialPath, new byte[20_000]);
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+            assertFalse(future.isCompletedExceptionally(), "download did not fail");
+            assertEquals(2, server.getRequests().size(), "restarted from the beginning");
+            assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+        }
+    }
+
+    @Test
+    public void rangeIgnoredTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(50_000);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            server.setRangesSupported(false);
+            Dependency dependency = server.addFile("resume-ignored", content);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setResumableDownloads(true);
+            dependencyManager.addDependencies(dependency);
+
+            Path path = dependencyManager.getPathForDependency(dependency, false);
+            Path partialPath = path.resolveSibling(path.getFileName() + ".part");
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(path);
+            Files.write(partialPath, Arrays.copyOf(content, 20_000));
+
+            dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository())).join();
+            assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+            assertEquals(50_000, dependencyManager.getStats().getBytesDownloaded(), "the whole file was downloaded");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.download.ResponseCodeException;
+import dev.vankka.dependencydownload.download.RetryPolicy;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-retry"));
+
+    @Test
+    public void retryTest() throws IOException {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            byte[] content = TestRepositoryServer.randomBytes(10_000);
+            Dependency dependency = server.addFile("retry", content);
+            server.failNextRequests(2, 500, null);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(100)));
+            dependencyManager.addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            dependencyManager.downloadAll(executorService, Collections.singletonList(server.getRepository())).join();
+
+            assertEquals(3, server.getRequests().size(), "retried twice");
+            assertArrayEquals(content, Files.readAllBytes(dependencyManager.getPathForDependency(dependency, false)), "content matches");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void retryAfterTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("retry-after", TestRepositoryServer.randomBytes(10_000));
+            server.failNextRequests(1, 429, "1");
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(10), Duration.ofSeconds(5)));
+            dependencyManager.addDependencies(dependency);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(dependency, false));
+
+            long start = System.nanoTime();
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+            long time = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            assertFalse(future.isCompletedExceptionally(), "download did not fail");
+            assertEquals(2, server.getRequests().size(), "retried once");
+            assertTrue(time >= 1000, "waited for Retry-After (" + time + "ms)");
+        }
+    }
+
+    @Test
+    public void retryAfterTooLongTest() {
+        RetryPolicy policy = new RetryPolicy(2, Duration.ofMillis(10), Duration.ofSeconds(5));
+        assertEquals(-1, policy.getRetryDelay(1, new ResponseCodeException(429, "url", "10")), "longer than the max backoff");
+        assertEquals(-1, policy.getRetryDelay(1, new ResponseCodeException(503, "url", "9223372036854776")), "does not overflow");
+        assertEquals(1000, policy.getRetryDelay(1, new ResponseCodeException(503, "url", "1")));
+    }
+
+    @Test
+    public void notFoundNotRetriedTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(100)));
+            dependencyManager.addDependencies(Helpers.FAKE_DEPENDENCY_1);
+
+            CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+
+            assertTrue(future.isCompletedExceptionally(), "download failed");
+            assertEquals(1, server.getRequests().size(), "not retried");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedDownloadTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-segmented"));
+
+    private Path download(TestRepositoryServer server, Dependency dependency) throws IOException {
+        DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+        dependencyManager.setSegmentedDownloads(4, 0);
+        dependencyManager.addDependencies(dependency);
+
+        Path path = dependencyManager.getPathForDependency(dependency, false);
+        Files.deleteIfExists(path);
+
+        CompletableFuture<Void> future = dependencyManager.downloadAll(null, Collections.singletonList(server.getRepository()));
+        assertFalse(future.isCompletedExceptionally(), "download did not fail");
+        return path;
+    }
+
+    @Test
+    public void segmentedTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(1_000_003);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency dependency = server.addFile("segmented", content);
+
+            Path path = download(server, dependency);
+            assertEquals(4, server.getRequests().size(), "one full and three ranged requests");
+            assertEquals(3, server.getRanges().size(), "three ranged requests");
+            assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+        }
+    }
+
+    @Test
+    public void rangesNotSupportedTest() throws IOException {
+        byte[] content = TestRepositoryServer.randomBytes(500_000);
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            server.setRangesSupported(false);
+            Dependency dependency = server.addFile("segmented-unsupported", content);
+
+            Path path = download(server, dependency);
+            assertArrayEquals(content, Files.readAllBytes(path), "content matches");
+        }
+    }
+}
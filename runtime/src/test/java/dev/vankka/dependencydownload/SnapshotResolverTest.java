@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.common.util.HashUtil;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.Repository;
+import dev.vankka.dependencydownload.repository.SnapshotResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotResolverTest {
+
+    private static final Path DIRECTORY = Paths.get("build", "integration-test-snapshot");
+    private static final String VERSION_PATH = "/test/snapshot/1.0.0-SNAPSHOT/";
+
+    @Test
+    public void snapshotResolverTest() throws IOException, NoSuchAlgorithmException {
+        Path metadataDirectory = DIRECTORY.resolve("metadata");
+        deleteRecursively(metadataDirectory);
+
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            List<Repository> repositories = Collections.singletonList(server.getRepository());
+            MavenDependency dependency = new MavenDependency("test", "snapshot", "1.0.0-SNAPSHOT", null, "0", "SHA-1");
+
+            byte[] firstContent = TestRepositoryServer.randomBytes(4_000);
+            publish(server, "20250101.120000", 1, firstContent);
+
+            MavenDependency first = new SnapshotResolver(metadataDirectory).resolve(dependency, repositories);
+            assertEquals("1.0.0-20250101.120000-1", first.getSnapshotVersion());
+
+            DependencyManager dependencyManager = new DependencyManager(DependencyPathProvider.directory(DIRECTORY.resolve("cache")));
+            dependencyManager.addDependencies(first);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(first, false));
+            dependencyManager.downloadAll(null, repositories).join();
+            assertArrayEquals(firstContent, Files.readAllBytes(dependencyManager.getPathForDependency(first, false)));
+
+            // Unchanged: a conditional request, and the checksum isn't requested again
+            MavenDependency unchanged = new SnapshotResolver(metadataDirectory).resolve(dependency, repositories);
+            assertEquals(first, unchanged);
+            assertEquals(first.getHash(), unchanged.getHash());
+            assertEquals(1, server.getNotModifiedResponses(), "metadata was not modified");
+            assertEquals(1, countRequests(server, first.getMavenPath() + ".sha1"), "checksum requested once");
+
+            // A new snapshot is published
+            publish(server, "20250102.120000", 2, TestRepositoryServer.randomBytes(4_001));
+            MavenDependency second = new SnapshotResolver(metadataDirectory).resolve(first, repositories);
+            assertEquals("1.0.0-20250102.120000-2", second.getSnapshotVersion());
+            assertNotEquals(first.getHash(), second.getHash());
+        }
+    }
+
+    private void publish(TestRepositoryServer server, String timestamp, int buildNumber, byte[] content) throws NoSuchAlgorithmException {
+        String snapshotVersion = "1.0.0-" + timestamp + "-" + buildNumber;
+        String metadata = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<metadata>\n"
+                + "  <groupId>test</groupId>\n"
+                + "  <artifactId>snapshot</artifactId>\n"
+                + "  <version>1.0.0-SNAPSHOT</version>\n"
+                + "  <versioning>\n"
+                + "    <snapshot>\n"
+                + "      <timestamp>" + timestamp + "</timestamp>\n"
+                + "      <buildNumber>" + buildNumber + "</buildNumber>\n"
+                + "    </snapshot>\n"
+                + "    <snapshotVersions>\n"
+                + "      <snapshotVersion>\n"
+                + "        <extension>pom</extension>\n"
+                + "        <value>" + snapshotVersion + "</value>\n"
+                + "      </snapshotVersion>\n"
+                + "      <snapshotVersion>\n"
+                + "        <extension>jar</extension>\n"
+                + "        <value>" + snapshotVersion + "</value>\n"
+                + "      </snapshotVersion>\n"
+                + "    </snapshotVersions>\n"
+                + "  </versioning>\n"
+                + "</metadata>\n";
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        digest.update(content);
+
+        String jarPath = VERSION_PATH + "snapshot-" + snapshotVersion + ".jar";
+        server.putFile(VERSION_PATH + "maven-metadata.xml", metadata.getBytes(StandardCharsets.UTF_8));
+        server.putFile(jarPath, content);
+        server.putFile(jarPath + ".sha1", HashUtil.getHash(digest).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long countRequests(TestRepositoryServer server, String mavenPath) {
+        return server.getRequests().stream().filter(("/" + mavenPath)::equals).count();
+    }
+
+    private void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : (Iterable<Path>) children::iterator) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.DependencyManagerStats.Phase;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatsTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-stats"));
+
+    @Test
+    public void statsTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency first = server.addFile("stats-first", TestRepositoryServer.randomBytes(10_000));
+            Dependency second = server.addFile("stats-second", TestRepositoryServer.randomBytes(20_000));
+            Repository repository = server.getRepository();
+            List<Repository> repositories = Arrays.asList(repository, repository);
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER);
+            dependencyManager.addDependencies(first, second);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(first, false));
+            Files.deleteIfExists(dependencyManager.getPathForDependency(second, false));
+
+            assertNull(dependencyManager.getStats().getTime(Phase.DOWNLOAD), "not started");
+
+            server.failNextRequests(1, 404, null);
+            dependencyManager.downloadAll(null, repositories).join();
+            dependencyManager.loadAll(null, path -> {}).join();
+
+            DependencyManagerStats stats = dependencyManager.getStats();
+            assertTrue(stats.isComplete(Phase.DOWNLOAD));
+            assertTrue(stats.isComplete(Phase.LOAD));
+            assertNotNull(stats.getTime(Phase.DOWNLOAD));
+            assertNull(stats.getTime(Phase.RELOCATE), "relocation was skipped");
+            assertEquals(30_000, stats.getBytesDownloaded());
+            assertEquals(0, stats.getCacheHits());
+            assertEquals(2, stats.getCacheMisses());
+            assertEquals(3, stats.getRepositoryAttempts());
+            assertEquals(1, stats.getRepositoryFailures());
+            assertTrue(stats.getHashTime().toNanos() > 0, "hashing was timed");
+
+            DependencyManagerStats.DependencyStats firstStats = stats.getDependencies().get(first);
+            assertEquals(10_000, firstStats.getBytesDownloaded());
+            assertEquals(repository.getHost(), firstStats.getRepository());
+            assertNotNull(firstStats.getTime(Phase.LOAD));
+
+            // Already downloaded by the previous manager
+            DependencyManager cachedManager = new DependencyManager(PATH_PROVIDER).addDependencies(first, second);
+            cachedManager.downloadAll(null, repositories).join();
+
+            DependencyManagerStats cachedStats = cachedManager.getStats();
+            assertEquals(2, cachedStats.getCacheHits());
+            assertEquals(0, cachedStats.getCacheMisses());
+            assertEquals(0, cachedStats.getBytesDownloaded());
+            assertEquals(0, cachedStats.getRepositoryAttempts());
+        }
+    }
+
+    @Test
+    public void applicationStatsTest() throws IOException {
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency first = server.addFile("stats-application-first", TestRepositoryServer.randomBytes(1_000));
+            Dependency second = server.addFile("stats-application-second", TestRepositoryServer.randomBytes(2_000));
+            List<Repository> repositories = Collections.singletonList(server.getRepository());
+
+            ApplicationDependencyManager applicationManager = new ApplicationDependencyManager(PATH_PROVIDER);
+            List<DependencyManager> managers = new ArrayList<>();
+            for (Dependency dependency : Arrays.asList(first, second)) {
+                Files.deleteIfExists(applicationManager.getPathForDependency(dependency, false));
+                DependencyManager manager = applicationManager.include(Collections.singletonList(dependency));
+                manager.downloadAll(null, repositories).join();
+                managers.add(manager);
+            }
+
+            DependencyManagerStats stats = applicationManager.getStats();
+            assertEquals(2, stats.getDependencies().size());
+            assertEquals(3_000, stats.getBytesDownloaded());
+            assertEquals(2, stats.getCacheMisses());
+            assertTrue(stats.isComplete(Phase.DOWNLOAD));
+            assertFalse(stats.isComplete(Phase.LOAD));
+
+            // Loaded managers are folded into the combined statistics
+            for (DependencyManager manager : managers) {
+                manager.loadAll(null, path -> {}).join();
+            }
+            DependencyManagerStats loadedStats = applicationManager.getStats();
+            assertEquals(2, loadedStats.getDependencies().size());
+            assertEquals(3_000, loadedStats.getBytesDownloaded());
+            assertEquals(2, loadedStats.getCacheMisses());
+            assertTrue(loadedStats.isComplete(Phase.DOWNLOAD));
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.vankka.dependencydownload.common.util.HashUtil;
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.dependency.MavenDependency;
+import dev.vankka.dependencydownload.repository.BundleRepository;
+import dev.vankka.dependencydownload.repository.MavenRepository;
+import dev.vankka.dependencydownload.repository.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A plain http maven repository on the loopback address.
+ */
+public class TestRepositoryServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private volatile boolean rangesSupported = true;
+    private volatile long responseDelay = 0;
+    private volatile int stallAfter = -1;
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger failingRequests = new AtomicInteger();
+    private volatile int failureResponseCode;
+    private volatile String failureRetryAfter;
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    public TestRepositoryServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static byte[] randomBytes(int amount) {
+        byte[] bytes = new byte[amount];
+        new Random(amount).nextBytes(bytes);
+        return bytes;
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            return HashUtil.getHash(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Dependency addFile(String artifactId, byte[] content) {
+        MavenDependency dependency = new MavenDependency("test", artifactId, "1.0.0", null, hash(content), "SHA-256");
+        files.put("/" + dependency.getMavenPath(), content);
+        return dependency;
+    }
+
+    /**
+     * Serves the content at the provided path.
+     * @param path the path, starting with {@code /}
+     * @param content the content
+     */
+    public void putFile(String path, byte[] content) {
+        files.put(path, content);
+    }
+
+    public Repository getRepository() {
+        return new MavenRepository("http://" + getAddress()) {
+            @Override
+            public URLConnection openConnection(Dependency dependency) throws IOException {
+                // Plain http is only allowed for tests
+                return createURL(dependency).openConnection();
+            }
+        };
+    }
+
+    public BundleRepository getBundleRepository(String path) {
+        return new BundleRepository("http://" + getAddress() + path) {
+            @Override
+            public URLConnection openConnection(Dependency dependency) throws IOException {
+                // Plain http is only allowed for tests
+                return createURL(dependency).openConnection();
+            }
+        };
+    }
+
+    public String getAddress() {
+        InetSocketAddress address = server.getAddress();
+        return address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    /**
+     * @param rangesSupported {@code false} to respond with the entire file to range requests, while still advertising range support
+     */
+    public void setRangesSupported(boolean rangesSupported) {
+        this.rangesSupported = rangesSupported;
+    }
+
+    /**
+     * @param responseDelay the time in milliseconds to wait before responding
+     */
+    public void setResponseDelay(long responseDelay) {
+        this.responseDelay = responseDelay;
+    }
+
+    /**
+     * @param stallAfter the amount of bytes of the body to send before the response stops sending data until the server is closed,
+     *                   {@code -1} to send the entire body
+     */
+    public void setStallAfter(int stallAfter) {
+        this.stallAfter = stallAfter;
+    }
+
+    /**
+     * Responds to the next requests with the provided response code.
+     * @param count the amount of requests to fail
+     * @param responseCode the response code
+     * @param retryAfter the {@code Retry-After} header or {@code null}
+     */
+    public void failNextRequests(int count, int responseCode, String retryAfter) {
+        this.failureResponseCode = responseCode;
+        this.failureRetryAfter = retryAfter;
+        this.failingRequests.set(count);
+    }
+
+    /**
+     * @return the paths requested from this server
+     */
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return the {@code Range} headers received by this server
+     */
+    public List<String> getRanges() {
+        return ranges;
+    }
+
+    /**
+     * @return the highest amount of requests this server was waiting to respond to at once
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests.get();
+    }
+
+    /**
+     * @return the amount of {@code 304 Not Modified} responses this server has sent
+     */
+    public int getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    protected void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.add(path);
+
+        int concurrent = concurrentRequests.incrementAndGet();
+        maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+        try {
+            if (responseDelay > 0) {
+                Thread.sleep(responseDelay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            concurrentRequests.decrementAndGet();
+        }
+
+        if (failingRequests.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            if (failureRetryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", failureRetryAfter);
+            }
+            exchange.sendResponseHeaders(failureResponseCode, -1);
+            return;
+        }
+
+        byte[] content = files.get(path);
+        if (content == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+
+        String entityTag = '"' + hash(content) + '"';
+        exchange.getResponseHeaders().add("ETag", entityTag);
+        if (entityTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        int start = 0;
+        int end = content.length - 1;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null) {
+            ranges.add(range);
+        }
+        if (!rangesSupported) {
+            range = null;
+        }
+        if (range != null) {
+            String[] parts = range.substring("bytes=".length()).split("-", 2);
+            start = Integer.parseInt(parts[0]);
+            if (!parts[1].isEmpty()) {
+                end = Math.min(end, Integer.parseInt(parts[1]));
+            }
+            if (start >= content.length) {
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+        }
+        exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+
+        int length = end - start + 1;
+        exchange.sendResponseHeaders(range != null ? 206 : 200, length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            int stall = stallAfter;
+            if (stall >= 0 && stall < length) {
+                outputStream.write(content, start, stall);
+                outputStream.flush();
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            outputStream.write(content, start, length);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
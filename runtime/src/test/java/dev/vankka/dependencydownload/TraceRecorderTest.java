@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021-2025 Vankka
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.vankka.dependencydownload;
+
+import dev.vankka.dependencydownload.dependency.Dependency;
+import dev.vankka.dependencydownload.listener.TraceRecorder;
+import dev.vankka.dependencydownload.path.DependencyPathProvider;
+import dev.vankka.dependencydownload.repository.Repository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceRecorderTest {
+
+    private static final DependencyPathProvider PATH_PROVIDER = DependencyPathProvider.directory(Paths.get("build", "integration-test-trace"));
+
+    @Test
+    public void traceTest() throws IOException {
+        TraceRecorder recorder = new TraceRecorder();
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "trace-executor"));
+        try (TestRepositoryServer server = new TestRepositoryServer()) {
+            Dependency first = server.addFile("trace-first", TestRepositoryServer.randomBytes(2_000));
+            Dependency second = server.addFile("trace-second", TestRepositoryServer.randomBytes(3_000));
+            List<Repository> repositories = Collections.singletonList(server.getRepository());
+
+            DependencyManager dependencyManager = new DependencyManager(PATH_PROVIDER).addDependencies(first, second).addListeners(recorder);
+            Files.deleteIfExists(dependencyManager.getPathForDependency(first, false));
+            Files.deleteIfExists(dependencyManager.getPathForDependency(second, false));
+            dependencyManager.downloadAll(executor, repositories).join();
+            dependencyManager.loadAll(executor, path -> {}).join();
+
+            // Verifies the downloaded files
+            new DependencyManager(PATH_PROVIDER).addDependencies(first).addListeners(recorder).downloadAll(executor, repositories).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        StringWriter writer = new StringWriter();
+        recorder.write(writer);
+        String trace = writer.toString();
+
+        assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(trace.endsWith("]}\n"));
+        assertTrue(trace.contains("{\"name\":\"thread_name\",\"ph\":\"M\""), "thread names");
+        assertTrue(trace.contains("\"args\":{\"name\":\"trace-executor\"}"), "executor thread");
+        assertTrue(trace.contains("{\"name\":\"queued\",\"cat\":\"queue\",\"ph\":\"b\""), "queue start");
+        assertFalse(trace.contains("{\"name\":\"queued\",\"cat\":\"queue\",\"ph\":\"X\""), "queue not on executor threads");
+        for (String span : new String[] {"connect", "transfer", "hash", "append"}) {
+            assertTrue(trace.contains("{\"name\":\"" + span + "\""), span);
+        }
+        assertTrue(trace.contains("{\"name\":\"test:trace-first:1.0.0\",\"cat\":\"download\",\"ph\":\"b\""), "download start");
+        assertTrue(trace.contains("\"ph\":\"e\""), "download end");
+        assertTrue(trace.contains("\"outcome\":\"skipped\""), "cached download");
+        assertTrue(trace.contains("\"bytes\":\"3000\""), "transferred bytes");
+    }
+}